@@ -1,6 +1,13 @@
 package frc.thunder;
 
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj2.command.Command;
+import frc.thunder.startup.StartupTimeline;
+import frc.thunder.startup.SubsystemGraph;
+import frc.thunder.startup.SubsystemHandle;
 
 /**
  * This class is where the bulk of the robot should be declared. Since
@@ -13,9 +20,24 @@ import edu.wpi.first.wpilibj2.command.Command;
  */
 public abstract class LightningContainer {
 
+    private final SubsystemGraph subsystemGraph = new SubsystemGraph();
+    private boolean subsystemsBuilt = true;
+
     public LightningContainer() {
         initializeSubsystems();
 
+        // Build anything declared with declareSubsystem, bindings below still run on this thread
+        if (!subsystemGraph.isEmpty()) {
+            subsystemsBuilt = subsystemGraph.build(getSubsystemThreads());
+        }
+
+        // bindings would hit unbuilt handles part way through, so leave the robot with no bindings instead
+        if (!subsystemsBuilt) {
+            DriverStation.reportError("Declared subsystems failed to build (see the errors above), "
+                    + "skipping named commands, button bindings and default commands", false);
+            return;
+        }
+
         initializeNamedCommands();
 
         // Setup driver commands and defaults
@@ -33,10 +55,47 @@ public abstract class LightningContainer {
     }
 
     /**
-     * Instantialize subsystems/static methods
+     * Instantialize subsystems/static methods, slow subsystems may be declared with
+     * {@link #declareSubsystem(String, Supplier, Function, String...)} instead
      */
     protected abstract void initializeSubsystems();
 
+    /**
+     * Declares a subsystem to be built concurrently after {@link #initializeSubsystems()} returns.
+     * The prepare step runs on a pool once its dependencies are built, the finish step runs
+     * on the main thread. Construct {@code SubsystemBase} subclasses in the finish step.
+     * 
+     * @param name unique name of the subsystem
+     * @param prepare slow, thread safe setup such as motor config applies or camera handshakes
+     * @param finish builds the subsystem from the prepared value
+     * @param dependencies names of subsystems that must be built first
+     * @return a handle to the subsystem, usable from {@link #initializeNamedCommands()} on
+     */
+    protected <P, T> SubsystemHandle<T> declareSubsystem(String name, Supplier<P> prepare, Function<P, T> finish, String... dependencies) {
+        return subsystemGraph.declare(name, prepare, finish, dependencies);
+    }
+
+    /**
+     * @return the number of threads used to prepare declared subsystems
+     */
+    protected int getSubsystemThreads() {
+        return 4;
+    }
+
+    /**
+     * @return true if every declared subsystem was built, false if commands and bindings were skipped
+     */
+    public boolean isSubsystemsBuilt() {
+        return subsystemsBuilt;
+    }
+
+    /**
+     * @return the per-subsystem construction timeline, empty if no subsystems were declared
+     */
+    public StartupTimeline getSubsystemTimeline() {
+        return subsystemGraph.getTimeline();
+    }
+
     /**
      * Instantialize named commands
      */
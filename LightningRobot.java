@@ -1,5 +1,7 @@
 package frc.thunder;
 
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.NetworkTableInstance;
 import edu.wpi.first.wpilibj.TimedRobot;
 import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.livewindow.LiveWindow;
@@ -9,12 +11,29 @@ import edu.wpi.first.wpilibj.DataLogManager;
 import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.Filesystem;
 import edu.wpi.first.wpilibj.DriverStation.Alliance;
+import edu.wpi.first.wpilibj.RobotController;
+import frc.thunder.shuffleboard.LightningShuffleboard;
+import frc.thunder.shuffleboard.TelemetryCost;
+import frc.thunder.startup.JitWarmup;
+import frc.thunder.startup.StartupPipeline;
 import frc.thunder.testing.SystemTest;
+import frc.thunder.timing.FastLoop;
+import frc.thunder.timing.GcMonitor;
+import frc.thunder.timing.LoopPhase;
+import frc.thunder.timing.LoopTimer;
+import frc.thunder.timing.OverrunProfiler;
+import frc.thunder.timing.PeriodicTaskRegistry;
+import frc.thunder.timing.TierExecutor;
+import frc.thunder.timing.TierScheduler;
+import frc.thunder.timing.TierScheduler.Slot;
+import frc.thunder.timing.TierScheduler.Tier;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Paths;
 import java.util.Properties;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Base robot class, provides
@@ -36,23 +55,47 @@ public class LightningRobot extends TimedRobot {
 
     private final static double SETTLE_TIME = 3.0;
     private final static double LOOP_TIME = 0.02;
+    private final static int STARTUP_THREADS = 2;
+    private final static double SETTLE_WARMUP_BUDGET = 0.01;
+    private final static double DISABLED_WARMUP_BUDGET = 0.005;
 
-    private int counter = 0;
-
-    private int medPriorityFreq = (int) Math.round(0.1 / getPeriod());
+    private long counter = 0;
 
     private double loopTime;
 
-    private int lowPriorityFreq = (int) Math.round(1 / getPeriod());
+    private final TierScheduler tierScheduler = new TierScheduler(getPeriod());
+
+    // no costs are known yet, so the scheduler breaks the tie by offset occupancy and puts each
+    // tier on ticks the earlier ones don't use (MEDIUM on 0, LOW on 1, BACKGROUND on 2)
+    private final Slot mediumPrioritySlot = tierScheduler.addSlot(Tier.MEDIUM, 0);
+    private final Slot lowPrioritySlot = tierScheduler.addSlot(Tier.LOW, 0);
+    private final Slot backgroundPrioritySlot = tierScheduler.addSlot(Tier.BACKGROUND, 0);
 
-    private int backgroundPriorityFreq = (int) Math.round(10 / getPeriod());
+    private DoublePublisher worstCaseLoadPublisher;
 
     private Command autonomousCommand;
 
+    private final LoopTimer loopTimer = new LoopTimer();
+
+    private long loopStart;
+
+    private boolean asyncTiers = false;
+    private TierExecutor lowPriorityExecutor;
+    private TierExecutor backgroundExecutor;
+    private final Queue<Runnable> mainThreadQueue = new ConcurrentLinkedQueue<>();
+
+    private OverrunProfiler overrunProfiler;
+
+    private GcMonitor gcMonitor;
+
+    private boolean jitWarmup = false;
+
     public LightningRobot(LightningContainer container) {
-        // timed robot has default constructor of 20ms and we want it at 10ms.
+        // fixed at the 20ms TimedRobot default, use a FastLoop for anything that needs to run faster
         super(LOOP_TIME);
         this.container = container;
+        PeriodicTaskRegistry.attach(tierScheduler);
+        LightningShuffleboard.setLayoutThread(Thread.currentThread());
     }
 
     public double getSettleTime() {
@@ -68,6 +111,100 @@ public class LightningRobot extends TimedRobot {
         return container;
     }
 
+    /**
+     * Runs {@link #robotLowPriorityPeriodic()} and {@link #robotBackgroundPeriodic()}
+     * on their own threads instead of the main loop. A tier that is still running
+     * when it comes due again is skipped and counted as an overrun.
+     * 
+     * Code in those tiers must be thread safe, use {@link #runOnMainThread(Runnable)}
+     * to hand results back to the main loop.
+     * 
+     * @param enabled true to run the low and background tiers off the main thread
+     */
+    public void setAsyncTiers(boolean enabled) {
+        if (enabled && lowPriorityExecutor == null) {
+            lowPriorityExecutor = new TierExecutor("LowPriority");
+            backgroundExecutor = new TierExecutor("Background");
+        }
+        asyncTiers = enabled;
+    }
+
+    /**
+     * @return true if the low and background tiers run off the main thread
+     */
+    public boolean isAsyncTiers() {
+        return asyncTiers;
+    }
+
+    /**
+     * Queues work to run on the main robot thread at the start of the next
+     * {@link #robotPeriodic()}. Safe to call from any thread.
+     * 
+     * @param task the work to run on the main thread
+     */
+    public void runOnMainThread(Runnable task) {
+        mainThreadQueue.add(task);
+    }
+
+    /**
+     * Starts a watchdog thread that samples the main thread's stack every
+     * millisecond while a loop is running past its period. Samples are
+     * aggregated by call site and written to DataLog and
+     * {@code LightningRobot/Overruns} once a second.
+     * 
+     * Call from robotInit after super.robotInit so DataLog is running.
+     * 
+     * @param enabled true to profile loop overruns
+     */
+    public void setOverrunProfiling(boolean enabled) {
+        if (enabled && overrunProfiler == null) {
+            overrunProfiler = new OverrunProfiler(Thread.currentThread(), getPeriod(), 0.001);
+            overrunProfiler.start();
+        } else if (!enabled && overrunProfiler != null) {
+            overrunProfiler.stop();
+            overrunProfiler = null;
+        }
+    }
+
+    /**
+     * Starts recording GC pauses and main loop allocation, see {@link GcMonitor}.
+     * Loop overruns that overlapped a GC pause are counted and published to
+     * {@code LightningRobot/GC} once a second.
+     * 
+     * Call from robotInit after super.robotInit so DataLog is running.
+     * 
+     * @param allocationBudget bytes the main loop may allocate per cycle, 0 for no budget
+     */
+    public void enableGcMonitoring(long allocationBudget) {
+        if (gcMonitor == null) {
+            gcMonitor = new GcMonitor();
+            gcMonitor.start();
+        }
+        gcMonitor.setAllocationBudget(allocationBudget);
+    }
+
+    /**
+     * @return the GC monitor, or null if {@link #enableGcMonitoring(long)} has not been called
+     */
+    public GcMonitor getGcMonitor() {
+        return gcMonitor;
+    }
+
+    /**
+     * Uses the settle window and time spent disabled to run the hot paths
+     * registered with {@link JitWarmup} (plus the library defaults) until they
+     * are JIT compiled. Warm-up gets a fixed slice of each loop so it never
+     * overruns the loop.
+     * 
+     * @param enabled true to warm up hot paths before the robot is enabled
+     */
+    public void setJitWarmup(boolean enabled) {
+        if (enabled && !jitWarmup) {
+            JitWarmup.registerDefaults();
+        }
+        jitWarmup = enabled;
+    }
+
     public boolean haveDriverStation = false;
 
     /**
@@ -89,13 +226,55 @@ public class LightningRobot extends TimedRobot {
      * This function is run when the robot is first started up and should be
      * used for any initialization code.
      *
+     * Startup runs as a {@link StartupPipeline} so independent steps overlap,
+     * and the timeline is printed and written to DataLog. Add your own steps
+     * in {@link #configureStartup(StartupPipeline)}.
+     *
      * If you override it, be sure to call super.robotInit
      */
     @Override
     public void robotInit() {
         System.out.println("LightningRobot.robotInit");
 
-        // Starts WPILIB data logging
+        // Note our start time
+        System.out.println("Starting time: " + Timer.getFPGATimestamp());
+
+        StartupPipeline pipeline = new StartupPipeline("robotInit");
+
+        // Starts WPILIB data logging, then logs driverstation
+        pipeline.add("dataLog", this::startDataLog);
+        pipeline.add("driverStationLog", () -> DriverStation.startDataLog(DataLogManager.getLog()), "dataLog");
+
+        // The container was built before DataLog started, so log its subsystem timeline now
+        pipeline.add("subsystemTimeline", () -> container.getSubsystemTimeline().writeToDataLog(), "dataLog");
+
+        // Read our version properties
+        pipeline.add("version", this::printVersion);
+
+        // No Live Window for now
+        pipeline.addOnMainThread("liveWindow", LiveWindow::disableAllTelemetry);
+
+        // Load our system tests to the dashboard
+        pipeline.addOnMainThread("systemTests", SystemTest::loadTests);
+
+        configureStartup(pipeline);
+
+        pipeline.run(STARTUP_THREADS);
+        pipeline.getTimeline().log();
+    }
+
+    /**
+     * Override to add robot specific steps to the robotInit {@link StartupPipeline}.
+     * The built in steps are "dataLog", "driverStationLog", "subsystemTimeline",
+     * "version", "liveWindow" and "systemTests", any of which may be used as
+     * dependencies.
+     * 
+     * @param pipeline the robotInit pipeline
+     */
+    protected void configureStartup(StartupPipeline pipeline) {
+    }
+
+    private void startDataLog() {
         final var envLogPath = System.getenv("LOG_PATH");
         if (envLogPath != null) {
             DataLogManager.start(envLogPath);
@@ -104,17 +283,9 @@ public class LightningRobot extends TimedRobot {
         } else {
             DataLogManager.start("/home/lvuser/logs");
         }
+    }
 
-        // Start logging driverstation
-        DriverStation.startDataLog(DataLogManager.getLog());
-
-        // No Live Window for now
-        LiveWindow.disableAllTelemetry();
-
-        // Note our start time
-        System.out.println("Starting time: " + Timer.getFPGATimestamp());
-
-        // Read our version properties
+    private void printVersion() {
         try {
             Properties props = new Properties();
             var stream = ClassLoader.getSystemResourceAsStream("version.properties");
@@ -130,9 +301,6 @@ public class LightningRobot extends TimedRobot {
         } catch (IOException e) {
             System.out.println("Unable to read build version information.");
         }
-
-        // Load our system tests to the dashboard
-        SystemTest.loadTests();
     }
 
     /**
@@ -150,33 +318,158 @@ public class LightningRobot extends TimedRobot {
      */
     @Override
     public void robotPeriodic() {
-        double time = Timer.getFPGATimestamp();
+        long start = RobotController.getFPGATime();
+        loopTimer.record(LoopPhase.MODE, start - loopStart);
+
+        Runnable handoff;
+        while ((handoff = mainThreadQueue.poll()) != null) {
+            handoff.run();
+        }
+
+        double time = start / 1e6;
+        // stays on once everything is warm, so hot paths registered later run when next disabled
+        if (jitWarmup && (time <= SETTLE_TIME || isDisabled()) && !JitWarmup.isComplete()) {
+            JitWarmup.run(time <= SETTLE_TIME ? SETTLE_WARMUP_BUDGET : DISABLED_WARMUP_BUDGET);
+        }
+
         if (time > SETTLE_TIME) {
             counter += 1;
-            if (counter % medPriorityFreq == 0) {
-                robotMediumPriorityPeriodic();
+            runTier(Tier.MEDIUM, null, mediumPrioritySlot, counter);
+            runTier(Tier.LOW, lowPriorityExecutor, lowPrioritySlot, counter);
+            runTier(Tier.BACKGROUND, backgroundExecutor, backgroundPrioritySlot, counter);
+
+            // published after the tiers are timed so the publish cost lands in the next window
+            if (tierScheduler.isDue(lowPrioritySlot, counter)) {
+                loopTimer.publish();
+                if (asyncTiers) {
+                    lowPriorityExecutor.publish();
+                    backgroundExecutor.publish();
+                }
+                PeriodicTaskRegistry.update(asyncTiers);
+                FastLoop.publishAll();
+                if (overrunProfiler != null) {
+                    overrunProfiler.publish();
+                }
+                if (gcMonitor != null) {
+                    gcMonitor.publish();
+                }
+                TelemetryCost.publish();
+                updateTierCosts();
             }
-            if (counter % lowPriorityFreq == 0) {
-                robotLowPriorityPeriodic();
+
+            loopTime = (RobotController.getFPGATime() - start) / 1e6;
+        }
+
+        long schedulerStart = RobotController.getFPGATime();
+        CommandScheduler.getInstance().run();
+        loopTimer.record(LoopPhase.SCHEDULER, RobotController.getFPGATime() - schedulerStart);
+
+        // buffered dashboard writes from this loop all land together
+        long telemetryStart = RobotController.getFPGATime();
+        LightningShuffleboard.flush();
+        loopTimer.record(LoopPhase.TELEMETRY, RobotController.getFPGATime() - telemetryStart);
+    }
+
+    /**
+     * Feeds the measured p95 of each tier back into the scheduler and publishes
+     * the worst-case tick load it computes. Async tiers cost the main loop nothing.
+     */
+    private void updateTierCosts() {
+        tierScheduler.setCost(mediumPrioritySlot, loopTimer.get(LoopPhase.MEDIUM).getPercentile(0.95) / 1000d);
+        tierScheduler.setCost(lowPrioritySlot, asyncTiers ? 0 : loopTimer.get(LoopPhase.LOW).getPercentile(0.95) / 1000d);
+        tierScheduler.setCost(backgroundPrioritySlot, asyncTiers ? 0 : loopTimer.get(LoopPhase.BACKGROUND).getPercentile(0.95) / 1000d);
+
+        if (worstCaseLoadPublisher == null) {
+            worstCaseLoadPublisher = NetworkTableInstance.getDefault().getTable("LightningRobot/TierScheduler").getDoubleTopic("worstCaseLoad").publish();
+        }
+        worstCaseLoadPublisher.set(tierScheduler.getWorstCaseLoad() * 1000d);
+    }
+
+    /**
+     * Runs a tier's hook and registered tasks inline, or on its executor if async
+     * tiers are enabled. Async hook timings are handed back to the main thread
+     * before they are recorded.
+     */
+    private void runTier(Tier tier, TierExecutor executor, Slot hookSlot, long tick) {
+        boolean hookDue = tierScheduler.isDue(hookSlot, tick);
+        if (!hookDue && !PeriodicTaskRegistry.hasDue(tier, tick)) {
+            return;
+        }
+
+        if (asyncTiers && executor != null) {
+            executor.submit(() -> runTierWork(tier, tick, hookDue, true));
+        } else {
+            runTierWork(tier, tick, hookDue, false);
+        }
+    }
+
+    private void runTierWork(Tier tier, long tick, boolean hookDue, boolean async) {
+        if (hookDue) {
+            long tierStart = RobotController.getFPGATime();
+            LoopPhase phase;
+            switch (tier) {
+                case MEDIUM:
+                    robotMediumPriorityPeriodic();
+                    phase = LoopPhase.MEDIUM;
+                    break;
+                case LOW:
+                    robotLowPriorityPeriodic();
+                    phase = LoopPhase.LOW;
+                    break;
+                default:
+                    robotBackgroundPeriodic();
+                    phase = LoopPhase.BACKGROUND;
+                    break;
             }
-            if (counter % backgroundPriorityFreq == 0) {
-                robotBackgroundPeriodic();
+            long duration = RobotController.getFPGATime() - tierStart;
+
+            if (async) {
+                runOnMainThread(() -> loopTimer.record(phase, duration));
+            } else {
+                loopTimer.record(phase, duration);
             }
+        }
 
-            loopTime = Timer.getFPGATimestamp() - time;
+        PeriodicTaskRegistry.run(tier, tick);
+    }
+
+    /**
+     * Wraps the WPILib loop so the mode periodic and the whole loop can be timed.
+     */
+    @Override
+    protected void loopFunc() {
+        OverrunProfiler profiler = overrunProfiler;
+        if (profiler != null) {
+            profiler.cycleStart();
         }
 
-        CommandScheduler.getInstance().run();
+        GcMonitor gc = gcMonitor;
+        if (gc != null) {
+            gc.loopStart();
+        }
+
+        loopStart = RobotController.getFPGATime();
+        super.loopFunc();
+        long total = RobotController.getFPGATime() - loopStart;
+        loopTimer.record(LoopPhase.TOTAL, total);
+        LoopTimer.updateHeadroom(total, getPeriod());
+
+        if (gc != null) {
+            gc.loopEnd(total > getPeriod() * 1e6);
+        }
+
+        if (profiler != null) {
+            profiler.cycleEnd();
+        }
     }
 
     /**
      * A slower loop, running once every 10 seconds
      *
-     * Note as currently implemented it still needs to
-     * complete in our loop time or it delay higher
-     * priority opterations. If you have a low priority,
-     * long running operation, consider creating a background
-     * thread.
+     * Note unless {@link #setAsyncTiers(boolean) async tiers}
+     * are enabled it still needs to complete in our loop time
+     * or it delay higher priority opterations. With async tiers
+     * it runs on its own thread and must be thread safe.
      */
     protected void robotBackgroundPeriodic() {
     }
@@ -184,11 +477,10 @@ public class LightningRobot extends TimedRobot {
     /**
      * A slow loop, running once a second
      *
-     * Note as currently implemented it still needs to
-     * complete in our loop time or it delay higher
-     * priority opterations. If you have a low priority,
-     * long running operation, consider creating a background
-     * thread.
+     * Note unless {@link #setAsyncTiers(boolean) async tiers}
+     * are enabled it still needs to complete in our loop time
+     * or it delay higher priority opterations. With async tiers
+     * it runs on its own thread and must be thread safe.
      */
     protected void robotLowPriorityPeriodic() {
     }
@@ -207,11 +499,32 @@ public class LightningRobot extends TimedRobot {
 
     /**
      * Getter for robot loop time.
+     * 
+     * @return the time spent in the priority loops last cycle in seconds
      */
-    private double getLoopTime() {
+    public double getLoopTime() {
         return loopTime;
     }
 
+    /**
+     * Getter for the scheduler that places the priority tiers on staggered ticks.
+     * 
+     * @return the {@link TierScheduler} for the robot loop
+     */
+    public TierScheduler getTierScheduler() {
+        return tierScheduler;
+    }
+
+    /**
+     * Getter for the per-phase loop timing histograms, published to
+     * {@code LightningRobot/LoopTiming} once a second.
+     * 
+     * @return the {@link LoopTimer} for the robot loop
+     */
+    public LoopTimer getLoopTimer() {
+        return loopTimer;
+    }
+
     /**
      * The default implementation handles getting the selected command
      * from Shuffleboard.
@@ -223,6 +536,7 @@ public class LightningRobot extends TimedRobot {
     @Override
     public void autonomousInit() {
         System.out.println("LightningRobot.autonomousInit");
+        loopTimer.reset();
         autonomousCommand = container.getAutonomousCommand();
         if (autonomousCommand != null)
             autonomousCommand.schedule();
@@ -241,6 +555,7 @@ public class LightningRobot extends TimedRobot {
     @Override
     public void teleopInit() {
         System.out.println("LightningRobot.teleopInit");
+        loopTimer.reset();
         if (autonomousCommand != null)
             autonomousCommand.cancel();
     }
@@ -0,0 +1,49 @@
+package frc.thunder.shuffleboard;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import edu.wpi.first.util.function.BooleanConsumer;
+
+/**
+ * Pre-resolved boolean entry, see {@link LightningShuffleboard#boolHandle(String, String)}
+ */
+public class BooleanHandle extends TelemetryHandle {
+    private final BooleanConsumer channel;
+    private final AtomicBoolean last;
+
+    BooleanHandle(String tabName, String key, BooleanConsumer channel, boolean initialValue) {
+        super(tabName, key);
+        this.channel = channel;
+        this.last = new AtomicBoolean(initialValue);
+    }
+
+    /**
+     * Publishes the value if it changed since the last publish
+     * 
+     * @param value the new value
+     */
+    public void set(boolean value) {
+        if (last.getAndSet(value) != value) {
+            publish();
+        }
+    }
+
+    @Override
+    boolean writeCurrent() {
+        boolean value = last.get();
+        channel.accept(value);
+        return last.get() == value;
+    }
+
+    @Override
+    int estimateBytes() {
+        return 1;
+    }
+
+    /**
+     * @return the last published value
+     */
+    public boolean get() {
+        return last.get();
+    }
+}
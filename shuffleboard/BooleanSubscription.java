@@ -0,0 +1,35 @@
+package frc.thunder.shuffleboard;
+
+import edu.wpi.first.networktables.NetworkTableValue;
+
+/**
+ * Listener-backed boolean entry, see {@link LightningShuffleboard#boolSubscription(String, String, boolean)}
+ */
+public class BooleanSubscription extends TelemetrySubscription {
+    private volatile boolean value;
+
+    BooleanSubscription(String tabName, String key, boolean initialValue) {
+        super(tabName, key);
+        this.value = initialValue;
+    }
+
+    @Override
+    void accept(NetworkTableValue networkValue) {
+        if (!networkValue.isBoolean()) {
+            return;
+        }
+
+        boolean newValue = networkValue.getBoolean();
+        if (newValue != value) {
+            value = newValue;
+            markChanged();
+        }
+    }
+
+    /**
+     * @return the latest value received from NT
+     */
+    public boolean get() {
+        return value;
+    }
+}
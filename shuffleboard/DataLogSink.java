@@ -0,0 +1,87 @@
+package frc.thunder.shuffleboard;
+
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+
+import edu.wpi.first.util.datalog.BooleanArrayLogEntry;
+import edu.wpi.first.util.datalog.BooleanLogEntry;
+import edu.wpi.first.util.datalog.DataLog;
+import edu.wpi.first.util.datalog.DoubleArrayLogEntry;
+import edu.wpi.first.util.datalog.DoubleLogEntry;
+import edu.wpi.first.util.datalog.StringArrayLogEntry;
+import edu.wpi.first.util.datalog.StringLogEntry;
+import edu.wpi.first.util.datalog.StructArrayLogEntry;
+import edu.wpi.first.util.datalog.StructLogEntry;
+import edu.wpi.first.util.function.BooleanConsumer;
+import edu.wpi.first.util.struct.Struct;
+import edu.wpi.first.wpilibj.DataLogManager;
+
+/**
+ * Appends entries straight to typed DataLog entries named {@code <prefix><tab>/<key>}, so high rate
+ * values can be logged on the robot without going through NT
+ */
+public class DataLogSink implements TelemetrySink {
+    private final DataLog log;
+    private final String prefix;
+
+    /**
+     * Logs to the {@link DataLogManager} log under {@code /LightningShuffleboard/}, create it after
+     * DataLogManager has been started
+     */
+    public DataLogSink() {
+        this(DataLogManager.getLog(), "/LightningShuffleboard/");
+    }
+
+    /**
+     * @param log the log to append to
+     * @param prefix prepended to every entry name, should end with a slash
+     */
+    public DataLogSink(DataLog log, String prefix) {
+        this.log = log;
+        this.prefix = prefix;
+    }
+
+    private String getName(String tabName, String key) {
+        return prefix + tabName + "/" + key;
+    }
+
+    @Override
+    public DoubleConsumer doubleChannel(String tabName, String key) {
+        return new DoubleLogEntry(log, getName(tabName, key))::append;
+    }
+
+    @Override
+    public BooleanConsumer booleanChannel(String tabName, String key) {
+        return new BooleanLogEntry(log, getName(tabName, key))::append;
+    }
+
+    @Override
+    public Consumer<String> stringChannel(String tabName, String key) {
+        return new StringLogEntry(log, getName(tabName, key))::append;
+    }
+
+    @Override
+    public Consumer<double[]> doubleArrayChannel(String tabName, String key) {
+        return new DoubleArrayLogEntry(log, getName(tabName, key))::append;
+    }
+
+    @Override
+    public Consumer<boolean[]> booleanArrayChannel(String tabName, String key) {
+        return new BooleanArrayLogEntry(log, getName(tabName, key))::append;
+    }
+
+    @Override
+    public Consumer<String[]> stringArrayChannel(String tabName, String key) {
+        return new StringArrayLogEntry(log, getName(tabName, key))::append;
+    }
+
+    @Override
+    public <T> Consumer<T> structChannel(String tabName, String key, Struct<T> struct) {
+        return StructLogEntry.create(log, getName(tabName, key), struct)::append;
+    }
+
+    @Override
+    public <T> Consumer<T[]> structArrayChannel(String tabName, String key, Struct<T> struct) {
+        return StructArrayLogEntry.create(log, getName(tabName, key), struct)::append;
+    }
+}
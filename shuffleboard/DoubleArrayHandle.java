@@ -0,0 +1,57 @@
+package frc.thunder.shuffleboard;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Pre-resolved double array entry, see {@link LightningShuffleboard#doubleArrayHandle(String, String)}
+ * 
+ * Changes are found by comparing contents against an internal copy, so callers may pass a fresh
+ * array every loop or reuse one buffer and mutate it. Unchanged arrays are neither copied nor published.
+ */
+public class DoubleArrayHandle extends TelemetryHandle {
+    private final Consumer<double[]> channel;
+    private double[] last;
+
+    DoubleArrayHandle(String tabName, String key, Consumer<double[]> channel, double[] initialValue) {
+        super(tabName, key);
+        this.channel = channel;
+        this.last = initialValue.clone();
+    }
+
+    /**
+     * Publishes the array if its contents changed since the last publish
+     * 
+     * @param value the new value, may be a reused buffer
+     */
+    public synchronized void set(double[] value) {
+        if (Arrays.equals(value, last)) {
+            return;
+        }
+
+        if (last.length == value.length) {
+            System.arraycopy(value, 0, last, 0, value.length);
+        } else {
+            last = value.clone();
+        }
+        publish();
+    }
+
+    @Override
+    synchronized boolean writeCurrent() {
+        channel.accept(last);
+        return true;
+    }
+
+    @Override
+    synchronized int estimateBytes() {
+        return last.length * Double.BYTES;
+    }
+
+    /**
+     * @return a copy of the last published value
+     */
+    public synchronized double[] get() {
+        return last.clone();
+    }
+}
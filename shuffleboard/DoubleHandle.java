@@ -0,0 +1,94 @@
+package frc.thunder.shuffleboard;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleConsumer;
+
+import edu.wpi.first.wpilibj.RobotController;
+
+/**
+ * Pre-resolved double entry, see {@link LightningShuffleboard#doubleHandle(String, String)}
+ */
+public class DoubleHandle extends TelemetryHandle {
+    private final DoubleConsumer channel;
+    private final AtomicLong lastBits;
+    private long lastPublish = 0;
+    private volatile PublishPolicy policy = PublishPolicy.ALWAYS;
+
+    DoubleHandle(String tabName, String key, DoubleConsumer channel, double initialValue) {
+        super(tabName, key);
+        this.channel = channel;
+        this.lastBits = new AtomicLong(Double.doubleToLongBits(initialValue));
+    }
+
+    /**
+     * Publishes the value if it changed since the last publish, as allowed by the {@link PublishPolicy}
+     * 
+     * @param value the new value
+     */
+    public void set(double value) {
+        PublishPolicy policy = this.policy;
+        if (policy == PublishPolicy.ALWAYS) {
+            long bits = Double.doubleToLongBits(value);
+            if (lastBits.getAndSet(bits) != bits) {
+                publish();
+            }
+            return;
+        }
+
+        setWithPolicy(policy, value);
+    }
+
+    private synchronized void setWithPolicy(PublishPolicy policy, double value) {
+        double last = get();
+        boolean changed = Double.doubleToLongBits(value) != Double.doubleToLongBits(last);
+
+        long now = policy.isTimed() ? RobotController.getFPGATime() : 0;
+        if (changed && policy.exceedsDeadband(last, value) && policy.rateAllows(now - lastPublish)) {
+            lastPublish = now;
+            update(value);
+        } else if (policy.heartbeatDue(now - lastPublish)) {
+            lastPublish = now;
+            update(value);
+        }
+    }
+
+    private void update(double value) {
+        lastBits.set(Double.doubleToLongBits(value));
+        publish();
+    }
+
+    @Override
+    boolean writeCurrent() {
+        long bits = lastBits.get();
+        channel.accept(Double.longBitsToDouble(bits));
+        return lastBits.get() == bits;
+    }
+
+    @Override
+    int estimateBytes() {
+        return Double.BYTES;
+    }
+
+    /**
+     * Sets how often this entry may be republished
+     * 
+     * @param policy the publish policy, {@link PublishPolicy#ALWAYS} to publish every change
+     */
+    public void setPolicy(PublishPolicy policy) {
+        this.policy = policy;
+    }
+
+    /**
+     * @return the publish policy of this entry
+     */
+    public PublishPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * @return the last published value
+     */
+    public double get() {
+        return Double.longBitsToDouble(lastBits.get());
+    }
+}
@@ -0,0 +1,35 @@
+package frc.thunder.shuffleboard;
+
+import edu.wpi.first.networktables.NetworkTableValue;
+
+/**
+ * Listener-backed double entry, see {@link LightningShuffleboard#doubleSubscription(String, String, double)}
+ */
+public class DoubleSubscription extends TelemetrySubscription {
+    private volatile double value;
+
+    DoubleSubscription(String tabName, String key, double initialValue) {
+        super(tabName, key);
+        this.value = initialValue;
+    }
+
+    @Override
+    void accept(NetworkTableValue networkValue) {
+        if (!networkValue.isDouble()) {
+            return;
+        }
+
+        double newValue = networkValue.getDouble();
+        if (Double.doubleToLongBits(newValue) != Double.doubleToLongBits(value)) {
+            value = newValue;
+            markChanged();
+        }
+    }
+
+    /**
+     * @return the latest value received from NT
+     */
+    public double get() {
+        return value;
+    }
+}
@@ -0,0 +1,77 @@
+package frc.thunder.shuffleboard;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import edu.wpi.first.networktables.DoubleArraySubscriber;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.StringArraySubscriber;
+
+/**
+ * Reads back a tab packed by {@link FrameSink}, on the robot or on a host connected to it
+ */
+public class FrameDecoder {
+    private final DoubleArraySubscriber valuesSubscriber;
+    private final StringArraySubscriber schemaSubscriber;
+
+    private String[] schema = new String[0];
+    private Map<String, Integer> slots = new HashMap<String, Integer>();
+
+    /**
+     * @param instance the NT instance the frames are published to
+     * @param tabName the packed tab to read
+     */
+    public FrameDecoder(NetworkTableInstance instance, String tabName) {
+        NetworkTable table = instance.getTable("LightningShuffleboard/Frames").getSubTable(tabName);
+        valuesSubscriber = table.getDoubleArrayTopic("values").subscribe(new double[0]);
+        schemaSubscriber = table.getStringArrayTopic("schema").subscribe(new String[0]);
+    }
+
+    /**
+     * @param key the name of the entry
+     * @param defaultValue returned if the key is not in the frame
+     * @return the latest value of the entry, booleans are 1 or 0
+     */
+    public double get(String key, double defaultValue) {
+        double[] values = valuesSubscriber.get();
+        Integer slot = getSlots().get(key);
+        return slot == null || slot >= values.length ? defaultValue : values[slot];
+    }
+
+    /**
+     * @return every entry in the latest frame, in slot order
+     */
+    public Map<String, Double> getAll() {
+        return decode(schemaSubscriber.get(), valuesSubscriber.get());
+    }
+
+    private synchronized Map<String, Integer> getSlots() {
+        String[] latest = schemaSubscriber.get();
+        if (!Arrays.equals(latest, schema)) {
+            schema = latest;
+            slots = new HashMap<String, Integer>();
+            for (int i = 0; i < schema.length; i++) {
+                slots.put(schema[i], i);
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Pairs a frame with its schema, slots missing from either side are skipped
+     * 
+     * @param schema the slot names
+     * @param values the packed values
+     * @return the entries by name, in slot order
+     */
+    public static Map<String, Double> decode(String[] schema, double[] values) {
+        Map<String, Double> entries = new LinkedHashMap<String, Double>();
+        for (int i = 0; i < Math.min(schema.length, values.length); i++) {
+            entries.put(schema[i], values[i]);
+        }
+        return entries;
+    }
+}
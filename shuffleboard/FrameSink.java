@@ -0,0 +1,154 @@
+package frc.thunder.shuffleboard;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+
+import edu.wpi.first.networktables.DoubleArrayPublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.StringArrayPublisher;
+import edu.wpi.first.util.function.BooleanConsumer;
+import edu.wpi.first.util.struct.Struct;
+
+/**
+ * Packs the numeric entries of a tab into one double array per cycle instead of one topic write
+ * per value. Doubles take a slot each and booleans are packed as 1 or 0, every other type is
+ * passed through to a fallback sink.
+ * 
+ * Each tab publishes {@code LightningShuffleboard/Frames/<tab>/values} and a matching
+ * {@code schema} naming every slot, see {@link FrameDecoder} to read them back. Frames are
+ * published by {@link LightningShuffleboard#flush()}, which LightningRobot calls at the end of
+ * every loop, and only when a value in them changed.
+ * 
+ * Packed values are never written to {@code Shuffleboard/<tab>/<key>}, so they can't be read back
+ * through {@link LightningShuffleboard#getDouble(String, String, double)} or the other subscriptions.
+ */
+public class FrameSink implements TelemetrySink {
+    private final NetworkTableInstance instance;
+    private final TelemetrySink fallback;
+    private final ConcurrentHashMap<String, Frame> frames = new ConcurrentHashMap<String, Frame>();
+
+    /**
+     * Packs into the default NT instance, non numeric entries go to a {@link NetworkTablesSink}
+     */
+    public FrameSink() {
+        this(NetworkTableInstance.getDefault(), new NetworkTablesSink());
+    }
+
+    /**
+     * @param instance the NT instance to publish frames to
+     * @param fallback the sink for entries that can't be packed
+     */
+    public FrameSink(NetworkTableInstance instance, TelemetrySink fallback) {
+        this.instance = instance;
+        this.fallback = fallback;
+    }
+
+    private class Frame {
+        private final DoubleArrayPublisher valuesPublisher;
+        private final StringArrayPublisher schemaPublisher;
+        private double[] values = new double[0];
+        private String[] schema = new String[0];
+        private final HashMap<String, Integer> slots = new HashMap<String, Integer>();
+        private boolean changed = false;
+
+        private Frame(String tabName) {
+            NetworkTable table = instance.getTable("LightningShuffleboard/Frames").getSubTable(tabName);
+            valuesPublisher = table.getDoubleArrayTopic("values").publish();
+            schemaPublisher = table.getStringArrayTopic("schema").publish();
+        }
+
+        /**
+         * @return the slot of the key, added if the key has none yet so reopened channels share it
+         */
+        private synchronized int addSlot(String key) {
+            Integer existing = slots.get(key);
+            if (existing != null) {
+                return existing;
+            }
+
+            int slot = schema.length;
+            slots.put(key, slot);
+            schema = Arrays.copyOf(schema, slot + 1);
+            schema[slot] = key;
+            values = Arrays.copyOf(values, slot + 1);
+            schemaPublisher.set(schema);
+            changed = true;
+            return slot;
+        }
+
+        private synchronized void set(int slot, double value) {
+            values[slot] = value;
+            changed = true;
+        }
+
+        private synchronized boolean publish() {
+            if (!changed) {
+                return false;
+            }
+            changed = false;
+            valuesPublisher.set(values);
+            return true;
+        }
+    }
+
+    private Frame getFrame(String tabName) {
+        return frames.computeIfAbsent(tabName, Frame::new);
+    }
+
+    @Override
+    public DoubleConsumer doubleChannel(String tabName, String key) {
+        Frame frame = getFrame(tabName);
+        int slot = frame.addSlot(key);
+        return value -> frame.set(slot, value);
+    }
+
+    @Override
+    public BooleanConsumer booleanChannel(String tabName, String key) {
+        Frame frame = getFrame(tabName);
+        int slot = frame.addSlot(key);
+        return value -> frame.set(slot, value ? 1 : 0);
+    }
+
+    @Override
+    public Consumer<String> stringChannel(String tabName, String key) {
+        return fallback.stringChannel(tabName, key);
+    }
+
+    @Override
+    public Consumer<double[]> doubleArrayChannel(String tabName, String key) {
+        return fallback.doubleArrayChannel(tabName, key);
+    }
+
+    @Override
+    public Consumer<boolean[]> booleanArrayChannel(String tabName, String key) {
+        return fallback.booleanArrayChannel(tabName, key);
+    }
+
+    @Override
+    public Consumer<String[]> stringArrayChannel(String tabName, String key) {
+        return fallback.stringArrayChannel(tabName, key);
+    }
+
+    @Override
+    public <T> Consumer<T> structChannel(String tabName, String key, Struct<T> struct) {
+        return fallback.structChannel(tabName, key, struct);
+    }
+
+    @Override
+    public <T> Consumer<T[]> structArrayChannel(String tabName, String key, Struct<T> struct) {
+        return fallback.structArrayChannel(tabName, key, struct);
+    }
+
+    @Override
+    public boolean flush() {
+        boolean wrote = false;
+        for (Frame frame : frames.values()) {
+            wrote |= frame.publish();
+        }
+        return wrote;
+    }
+}
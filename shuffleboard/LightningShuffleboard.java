@@ -18,27 +18,70 @@
 
 package frc.thunder.shuffleboard;
 
-import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
 import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
 import java.util.function.DoubleSupplier;
+import java.util.function.Function;
 import java.util.function.Supplier;
+import frc.thunder.util.Pose4d;
 import frc.thunder.util.Tuple;
 
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Pose3d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.networktables.NetworkTableEntry;
 import edu.wpi.first.networktables.NetworkTableInstance;
 import edu.wpi.first.networktables.StructArrayPublisher;
-import edu.wpi.first.networktables.StructPublisher;
 import edu.wpi.first.util.sendable.Sendable;
+import edu.wpi.first.util.struct.Struct;
 import edu.wpi.first.wpilibj.shuffleboard.Shuffleboard;
-import edu.wpi.first.wpilibj.shuffleboard.ShuffleboardTab;
 
 public class LightningShuffleboard {
-    private static HashMap<String, Object> keyList = new HashMap<String, Object>();
+    private static ConcurrentHashMap<String, Object> keyList = new ConcurrentHashMap<String, Object>();
 
-    //seperate hm for poses in order to retain publishers.
-    private static HashMap<String, StructPublisher<Pose2d>> poseList = new HashMap<String, StructPublisher<Pose2d>>();
+    //Shuffleboard itself is not thread safe, so tab changes are serialized on this lock
+    private static final Object shuffleboardLock = new Object();
+
+    //Shuffleboard.update() walks the tabs on the main thread without that lock, so other threads queue their widgets for it
+    private static volatile Thread layoutThread = null;
+    private static ConcurrentLinkedQueue<PendingWidget> pendingLayout = new ConcurrentLinkedQueue<PendingWidget>();
+
+    //handles created while suppressed, with the value their widget is added with once they publish
+    private static ConcurrentHashMap<TelemetryHandle, Object> hiddenWidgets = new ConcurrentHashMap<TelemetryHandle, Object>();
+
+    //publish policies set before their handle exists, by tab/key and by tab
+    private static ConcurrentHashMap<String, PublishPolicy> policyList = new ConcurrentHashMap<String, PublishPolicy>();
+    private static ConcurrentHashMap<String, PublishPolicy> tabPolicyList = new ConcurrentHashMap<String, PublishPolicy>();
+
+    //verbosity levels set before their handle exists, by tab/key and by tab
+    private static ConcurrentHashMap<String, Verbosity> verbosityList = new ConcurrentHashMap<String, Verbosity>();
+    private static ConcurrentHashMap<String, Verbosity> tabVerbosityList = new ConcurrentHashMap<String, Verbosity>();
+    private static volatile Verbosity verbosity = Verbosity.DEBUG;
+
+    //where handles write to, the default NT sink keeps entries in the Shuffleboard layout
+    private static volatile TelemetrySink[] sinks = new TelemetrySink[] { new NetworkTablesSink() };
+    private static ConcurrentHashMap<String, TelemetrySink[]> tabSinkList = new ConcurrentHashMap<String, TelemetrySink[]>();
+    private static CopyOnWriteArrayList<TelemetrySink> allSinks = new CopyOnWriteArrayList<TelemetrySink>(sinks);
+    private static FrameSink frameSink;
+
+    //every handle, buffered mode flushes the ones marked dirty at the end of the loop
+    private static volatile boolean buffered = false;
+    private static volatile boolean flushNetworkTables = false;
+    private static CopyOnWriteArrayList<TelemetryHandle> allHandles = new CopyOnWriteArrayList<TelemetryHandle>();
+
+    //handles by tab then key, so hot lookups don't need to build a tab/key string
+    private static ConcurrentHashMap<String, ConcurrentHashMap<String, TelemetryHandle>> handleList = new ConcurrentHashMap<String, ConcurrentHashMap<String, TelemetryHandle>>();
+
+    //listener-backed reads by tab then key
+    private static ConcurrentHashMap<String, ConcurrentHashMap<String, TelemetrySubscription>> subscriptionList = new ConcurrentHashMap<String, ConcurrentHashMap<String, TelemetrySubscription>>();
 
     /**
      * Creates and sets a double to NT through shuffleboard
@@ -48,22 +91,33 @@ public class LightningShuffleboard {
      * @implNote must be called periodically to update
      */
     public static void setDouble(String tabName, String key, double value) {
-        ShuffleboardTab tab = Shuffleboard.getTab(tabName);
-
-        String index = tabName + "/" + key;
-
         /* logic breakdown:
-         * if the key does not exist, create it
-         * if they exists but is not updated, update it
-         * else, the key exists and is up-to-date, so nothing needs to be done
+         * if the key does not exist, create a handle for it (which creates the entry)
+         * the handle keeps the last value as a primitive and only publishes changes
+         * this avoids building strings or boxing values on every call
+         * suppressed entries get a handle too (with no widget), so later calls only check its level
          */
-        if(!keyList.containsKey(index)) {
-            keyList.put(index, value);
-            tab.add(key, value);
-        } else if(!keyList.get(index).equals(value)) {
-            keyList.put(index, value);
-            NetworkTableInstance.getDefault().getTable("Shuffleboard").getSubTable(tabName).getEntry(key).setDouble(value);
+        TelemetryHandle handle = lookup(tabName, key);
+        if(handle == null) {
+            doubleHandle(tabName, key, value).set(value);
+        } else {
+            cast(handle, DoubleHandle.class).set(value);
+        }
+    }
+
+    /**
+     * Creates and sets a double to NT through shuffleboard if the level is within the verbosity threshold
+     * @param level the verbosity level of the value, suppressed calls return before any lookup
+     * @param tabName the tab this shuffleboard entry will be placed in
+     * @param key the name of the shuffleboard entry
+     * @param value the value of the shuffleboard entry
+     * @implNote must be called periodically to update
+     */
+    public static void setDouble(Verbosity level, String tabName, String key, double value) {
+        if(!isEnabled(level)) {
+            return;
         }
+        setDouble(tabName, key, value);
     }
 
     /**
@@ -74,22 +128,33 @@ public class LightningShuffleboard {
      * @implNote must be called periodically to update
      */
     public static void setBool(String tabName, String key, boolean value) {
-        ShuffleboardTab tab = Shuffleboard.getTab(tabName);
-
-        String index = tabName + "/" + key;
-
         /* logic breakdown:
-         * if the key does not exist, create it
-         * if they exists but is not updated, update it
-         * else, the key exists and is up-to-date, so nothing needs to be done
+         * if the key does not exist, create a handle for it (which creates the entry)
+         * the handle keeps the last value as a primitive and only publishes changes
+         * this avoids building strings or boxing values on every call
+         * suppressed entries get a handle too (with no widget), so later calls only check its level
          */
-        if(!keyList.containsKey(index)) {
-            keyList.put(index, value);
-            tab.add(key, value);
-        } else if(!keyList.get(index).equals(value)) {
-            keyList.put(index, value);
-            NetworkTableInstance.getDefault().getTable("Shuffleboard").getSubTable(tabName).getEntry(key).setBoolean(value);
+        TelemetryHandle handle = lookup(tabName, key);
+        if(handle == null) {
+            boolHandle(tabName, key, value).set(value);
+        } else {
+            cast(handle, BooleanHandle.class).set(value);
+        }
+    }
+
+    /**
+     * Creates and sets a boolean to NT through shuffleboard if the level is within the verbosity threshold
+     * @param level the verbosity level of the value, suppressed calls return before any lookup
+     * @param tabName the tab this shuffleboard entry will be placed in
+     * @param key the name of the shuffleboard entry
+     * @param value the value of the shuffleboard entry
+     * @implNote must be called periodically to update
+     */
+    public static void setBool(Verbosity level, String tabName, String key, boolean value) {
+        if(!isEnabled(level)) {
+            return;
         }
+        setBool(tabName, key, value);
     }
 
     /**
@@ -100,22 +165,32 @@ public class LightningShuffleboard {
      * @implNote must be called periodically to update
      */
     public static void setString(String tabName, String key, String value) {
-        ShuffleboardTab tab = Shuffleboard.getTab(tabName);
-
-        String index = tabName + "/" + key;
-
         /* logic breakdown:
-         * if the key does not exist, create it
-         * if they exists but is not updated, update it
-         * else, the key exists and is up-to-date, so nothing needs to be done
+         * if the key does not exist, create a handle for it (which creates the entry)
+         * the handle only publishes changes
+         * suppressed entries get a handle too (with no widget), so later calls only check its level
          */
-        if(!keyList.containsKey(index)) {
-            keyList.put(index, value);
-            tab.add(key, value);
-        } else if(!keyList.get(index).equals(value)) {
-            keyList.put(index, value);
-            NetworkTableInstance.getDefault().getTable("Shuffleboard").getSubTable(tabName).getEntry(key).setString(value);
+        TelemetryHandle handle = lookup(tabName, key);
+        if(handle == null) {
+            stringHandle(tabName, key, value).set(value);
+        } else {
+            cast(handle, StringHandle.class).set(value);
+        }
+    }
+
+    /**
+     * Creates and sets a string to NT through shuffleboard if the level is within the verbosity threshold
+     * @param level the verbosity level of the value, suppressed calls return before any lookup
+     * @param tabName the tab this shuffleboard entry will be placed in
+     * @param key the name of the shuffleboard entry
+     * @param value the value of the shuffleboard entry
+     * @implNote must be called periodically to update
+     */
+    public static void setString(Verbosity level, String tabName, String key, String value) {
+        if(!isEnabled(level)) {
+            return;
         }
+        setString(tabName, key, value);
     }
 
     /**
@@ -126,17 +201,30 @@ public class LightningShuffleboard {
      * @implNote will update automatically
      */
     public static void setDoubleSupplier(String tabName, String key, DoubleSupplier value) {
-        ShuffleboardTab tab = Shuffleboard.getTab(tabName);
-
+        if(!isEnabled(levelOf(tabName, key))) {
+            return;
+        }
         String index = tabName + "/" + key;
 
         /* logic breakdown:
          * if the key does not exist, create it. this is it because its a supplier
          */
-        if(!keyList.containsKey(index)) {
-            keyList.put(index, value);
-            tab.add(key, value);
+        addToTab(tabName, key, index, value);
+    }
+
+    /**
+     * Creates and sets a double supplier to NT through shuffleboard if the level is within the verbosity threshold
+     * @param level the verbosity level of the value, suppressed calls return before any lookup
+     * @param tabName the tab this shuffleboard entry will be placed in
+     * @param key the name of the shuffleboard entry
+     * @param value the value of the shuffleboard entry
+     * @implNote will update automatically
+     */
+    public static void setDoubleSupplier(Verbosity level, String tabName, String key, DoubleSupplier value) {
+        if(!isEnabled(level)) {
+            return;
         }
+        setDoubleSupplier(tabName, key, value);
     }
 
     /**
@@ -147,17 +235,30 @@ public class LightningShuffleboard {
      * @implNote will update automatically
      */
     public static void setBoolSupplier(String tabName, String key, BooleanSupplier value) {
-        ShuffleboardTab tab = Shuffleboard.getTab(tabName);
-
+        if(!isEnabled(levelOf(tabName, key))) {
+            return;
+        }
         String index = tabName + "/" + key;
 
         /* logic breakdown:
          * if the key does not exist, create it. this is it because its a supplier
          */
-        if(!keyList.containsKey(index)) {
-            keyList.put(index, value);
-            tab.add(key, value);
+        addToTab(tabName, key, index, value);
+    }
+
+    /**
+     * Creates and sets a boolean supplier to NT through shuffleboard if the level is within the verbosity threshold
+     * @param level the verbosity level of the value, suppressed calls return before any lookup
+     * @param tabName the tab this shuffleboard entry will be placed in
+     * @param key the name of the shuffleboard entry
+     * @param value the value of the shuffleboard entry
+     * @implNote will update automatically
+     */
+    public static void setBoolSupplier(Verbosity level, String tabName, String key, BooleanSupplier value) {
+        if(!isEnabled(level)) {
+            return;
         }
+        setBoolSupplier(tabName, key, value);
     }
 
     /**
@@ -168,17 +269,30 @@ public class LightningShuffleboard {
      * @implNote will update automatically
      */
     public static void setStringSupplier(String tabName, String key, Supplier<String> value) {
-        ShuffleboardTab tab = Shuffleboard.getTab(tabName);
-
+        if(!isEnabled(levelOf(tabName, key))) {
+            return;
+        }
         String index = tabName + "/" + key;
 
         /* logic breakdown:
          * if the key does not exist, create it. this is it because its a supplier
          */
-        if(!keyList.containsKey(index)) {
-            keyList.put(index, value);
-            tab.add(key, value);
+        addToTab(tabName, key, index, value);
+    }
+
+    /**
+     * Creates and sets a string supplier to NT through shuffleboard if the level is within the verbosity threshold
+     * @param level the verbosity level of the value, suppressed calls return before any lookup
+     * @param tabName the tab this shuffleboard entry will be placed in
+     * @param key the name of the shuffleboard entry
+     * @param value the value of the shuffleboard entry
+     * @implNote will update automatically
+     */
+    public static void setStringSupplier(Verbosity level, String tabName, String key, Supplier<String> value) {
+        if(!isEnabled(level)) {
+            return;
         }
+        setStringSupplier(tabName, key, value);
     }
 
     /**
@@ -188,25 +302,14 @@ public class LightningShuffleboard {
      * @param defaultValue the initial entry value
      * @return the value of the shuffleboard entry
      * 
-     * @implNote this causes some performance issues if used periodically.
+     * @implNote only the first call per key touches NT, later calls read the value pushed by a listener
      */
     public static double getDouble(String tabName, String key, double defaultValue) {
-        String index = tabName + "/" + key;
-
         /* logic breakdown:
-         * if the key does not exist, create it
-         * if the key exists, update it
-         * this does create some overhead if used periodically
+         * if the key does not exist, create it and subscribe to it
+         * an NT listener keeps the subscription up to date, so this is a cached read
          */
-        if(!keyList.containsKey(index)) {
-            keyList.put(index, defaultValue);
-            Shuffleboard.getTab(tabName).add(key, defaultValue);
-            return defaultValue;
-        } else {
-            double value = NetworkTableInstance.getDefault().getTable("Shuffleboard").getSubTable(tabName).getEntry(key).getDouble(defaultValue);
-            keyList.put(index, value);
-            return value;
-        }
+        return doubleSubscription(tabName, key, defaultValue).get();
     }
 
     /**
@@ -216,25 +319,14 @@ public class LightningShuffleboard {
      * @param defaultValue the initial entry value
      * @return the value of the shuffleboard entry
      * 
-     * @implNote this causes some performance issues if used periodically.
+     * @implNote only the first call per key touches NT, later calls read the value pushed by a listener
      */
     public static boolean getBool(String tabName, String key, boolean defaultValue) {
-        String index = tabName + "/" + key;
-
         /* logic breakdown:
-         * if the key does not exist, create it
-         * if the key exists, update it
-         * this does create some overhead if used periodically
+         * if the key does not exist, create it and subscribe to it
+         * an NT listener keeps the subscription up to date, so this is a cached read
          */
-        if(!keyList.containsKey(index)) {
-            keyList.put(index, defaultValue);
-            Shuffleboard.getTab(tabName).add(key, defaultValue);
-            return defaultValue;
-        } else {
-            boolean value = NetworkTableInstance.getDefault().getTable("Shuffleboard").getSubTable(tabName).getEntry(key).getBoolean(defaultValue);
-            keyList.put(index, value);
-            return value;
-        }
+        return boolSubscription(tabName, key, defaultValue).get();
     }
 
     /**
@@ -244,25 +336,14 @@ public class LightningShuffleboard {
      * @param defaultValue the initial entry value
      * @return the value of the shuffleboard entry
      * 
-     * @implNote this causes some performance issues if used periodically.
+     * @implNote only the first call per key touches NT, later calls read the value pushed by a listener
      */
     public static String getString(String tabName, String key, String defaultValue) {
-        String index = tabName + "/" + key;
-
         /* logic breakdown:
-         * if the key does not exist, create it
-         * if the key exists, update it
-         * this does create some overhead if used periodically
+         * if the key does not exist, create it and subscribe to it
+         * an NT listener keeps the subscription up to date, so this is a cached read
          */
-        if(!keyList.containsKey(index)) {
-            keyList.put(index, defaultValue);
-            Shuffleboard.getTab(tabName).add(key, defaultValue);
-            return defaultValue;
-        } else {
-            String value = NetworkTableInstance.getDefault().getTable("Shuffleboard").getSubTable(tabName).getEntry(key).getString(defaultValue);
-            keyList.put(index, value);
-            return value;
-        }
+        return stringSubscription(tabName, key, defaultValue).get();
     }
 
     
@@ -274,22 +355,32 @@ public class LightningShuffleboard {
      * @implNote must be called periodically to update
      */
     public static void setDoubleArray(String tabName, String key, double[] value) {
-        ShuffleboardTab tab = Shuffleboard.getTab(tabName);
-
-        String index = tabName + "/" + key;
-
         /* logic breakdown:
-         * if the key does not exist, create it
-         * if they exists but is not updated, update it
-         * else, the key exists and is up-to-date, so nothing needs to be done
+         * if the key does not exist, create a handle for it (which creates the entry)
+         * the handle compares contents against its own copy and only publishes changes
+         * suppressed entries get a handle too (with no widget), so later calls only check its level
          */
-        if(!keyList.containsKey(index)) {
-            keyList.put(index, value);
-            tab.add(key, value);
-        } else if(!keyList.get(index).equals(value)) {
-            keyList.put(index, value);
-            NetworkTableInstance.getDefault().getTable("Shuffleboard").getSubTable(tabName).getEntry(key).setDoubleArray(value);
+        TelemetryHandle handle = lookup(tabName, key);
+        if(handle == null) {
+            doubleArrayHandle(tabName, key, value).set(value);
+        } else {
+            cast(handle, DoubleArrayHandle.class).set(value);
+        }
+    }
+
+    /**
+     * Creates and sets a double array to NT through shuffleboard if the level is within the verbosity threshold
+     * @param level the verbosity level of the value, suppressed calls return before any lookup
+     * @param tabName the tab this shuffleboard entry will be placed in
+     * @param key the name of the shuffleboard entry
+     * @param value the value of the shuffleboard entry
+     * @implNote must be called periodically to update
+     */
+    public static void setDoubleArray(Verbosity level, String tabName, String key, double[] value) {
+        if(!isEnabled(level)) {
+            return;
         }
+        setDoubleArray(tabName, key, value);
     }
 
     /**
@@ -300,22 +391,32 @@ public class LightningShuffleboard {
      * @implNote must be called periodically to update
      */
     public static void setBoolArray(String tabName, String key, boolean[] value) {
-        ShuffleboardTab tab = Shuffleboard.getTab(tabName);
-
-        String index = tabName + "/" + key;
-
         /* logic breakdown:
-         * if the key does not exist, create it
-         * if they exists but is not updated, update it
-         * else, the key exists and is up-to-date, so nothing needs to be done
+         * if the key does not exist, create a handle for it (which creates the entry)
+         * the handle compares contents against its own copy and only publishes changes
+         * suppressed entries get a handle too (with no widget), so later calls only check its level
          */
-        if(!keyList.containsKey(index)) {
-            keyList.put(index, value);
-            tab.add(key, value);
-        } else if(!keyList.get(index).equals(value)) {
-            keyList.put(index, value);
-            NetworkTableInstance.getDefault().getTable("Shuffleboard").getSubTable(tabName).getEntry(key).setBooleanArray(value);
+        TelemetryHandle handle = lookup(tabName, key);
+        if(handle == null) {
+            boolArrayHandle(tabName, key, value).set(value);
+        } else {
+            cast(handle, BooleanArrayHandle.class).set(value);
+        }
+    }
+
+    /**
+     * Creates and sets a boolean array to NT through shuffleboard if the level is within the verbosity threshold
+     * @param level the verbosity level of the value, suppressed calls return before any lookup
+     * @param tabName the tab this shuffleboard entry will be placed in
+     * @param key the name of the shuffleboard entry
+     * @param value the value of the shuffleboard entry
+     * @implNote must be called periodically to update
+     */
+    public static void setBoolArray(Verbosity level, String tabName, String key, boolean[] value) {
+        if(!isEnabled(level)) {
+            return;
         }
+        setBoolArray(tabName, key, value);
     }
 
     /**
@@ -326,22 +427,32 @@ public class LightningShuffleboard {
      * @implNote must be called periodically to update
      */
     public static void setStringArray(String tabName, String key, String[] value) {
-        ShuffleboardTab tab = Shuffleboard.getTab(tabName);
-
-        String index = tabName + "/" + key;
-
         /* logic breakdown:
-         * if the key does not exist, create it
-         * if they exists but is not updated, update it
-         * else, the key exists and is up-to-date, so nothing needs to be done
+         * if the key does not exist, create a handle for it (which creates the entry)
+         * the handle compares contents against its own copy and only publishes changes
+         * suppressed entries get a handle too (with no widget), so later calls only check its level
          */
-        if(!keyList.containsKey(index)) {
-            keyList.put(index, value);
-            tab.add(key, value);
-        } else if(!keyList.get(index).equals(value)) {
-            keyList.put(index, value);
-            NetworkTableInstance.getDefault().getTable("Shuffleboard").getSubTable(tabName).getEntry(key).setStringArray(value);
+        TelemetryHandle handle = lookup(tabName, key);
+        if(handle == null) {
+            stringArrayHandle(tabName, key, value).set(value);
+        } else {
+            cast(handle, StringArrayHandle.class).set(value);
+        }
+    }
+
+    /**
+     * Creates and sets a String array to NT through shuffleboard if the level is within the verbosity threshold
+     * @param level the verbosity level of the value, suppressed calls return before any lookup
+     * @param tabName the tab this shuffleboard entry will be placed in
+     * @param key the name of the shuffleboard entry
+     * @param value the value of the shuffleboard entry
+     * @implNote must be called periodically to update
+     */
+    public static void setStringArray(Verbosity level, String tabName, String key, String[] value) {
+        if(!isEnabled(level)) {
+            return;
         }
+        setStringArray(tabName, key, value);
     }
 
     /**
@@ -352,108 +463,947 @@ public class LightningShuffleboard {
      * @implNote must be called periodically to update
      */
     public static void setPose2d(String tabName, String key, Pose2d value) {
-        ShuffleboardTab tab = Shuffleboard.getTab(tabName);
-
-        String index = tabName + "/" + key;
-
         /* logic breakdown:
-         * if the key does not exist, create it
-         * if they exists but is not updated, update it
-         * else, the key exists and is up-to-date, so nothing needs to be done
+         * if the key does not exist, create a handle for it (which creates the publisher)
+         * the handle only publishes changes
          */
-        if(!keyList.containsKey(index)) {
-            keyList.put(index, value);
-            poseList.put(index, NetworkTableInstance.getDefault().getTable("Shuffleboard").getSubTable(tabName).getStructTopic(key, Pose2d.struct).publish());
-        } else if(!keyList.get(index).equals(value)) {
-            keyList.put(index, value);
-            poseList.get(index).accept(value);
-        }
+        structHandle(tabName, key, Pose2d.struct).set(value);
     }
 
     /**
-     * Set a {@link <a href="https://docs.wpilib.org/en/stable/docs/software/telemetry/robot-telemetry-with-sendable.html">Sendable</a>} object to NT through shuffleboard
+     * Creates and sets a Pose2d to NT through shuffleboard if the level is within the verbosity threshold
+     * @param level the verbosity level of the value, suppressed calls return before any lookup
      * @param tabName the tab this shuffleboard entry will be placed in
      * @param key the name of the shuffleboard entry
      * @param value the value of the shuffleboard entry
+     * @implNote must be called periodically to update
      */
-    public static void send(String tabName, String key, Sendable value) {
-        ShuffleboardTab tab = Shuffleboard.getTab(tabName);
-
-        String index = tabName + "/" + key;
-
-        /* logic breakdown:
-         * if the key does not exist, create it. this is it because its a supplier
-         */
-        if(!keyList.containsKey(index)) {
-            keyList.put(index, value);
-            tab.add(key, value);
+    public static void setPose2d(Verbosity level, String tabName, String key, Pose2d value) {
+        if(!isEnabled(level)) {
+            return;
         }
+        setPose2d(tabName, key, value);
     }
 
     /**
-     * grabs a NT entry
-     * @param table the table to grab the entry from ("Shuffleboard" for shuffleboard)
-     * @param subTable the subtable to grab the entry from (tab name for shuffleboard)
-     * @param key the name of the NT entry
-     * @return the NT entry
-     * 
-     * @implNote if entry does not exist, returns null. will NOT create entry automatically.
+     * Creates and sets a Pose3d to NT through shuffleboard in AdvantageScope Struct format
+     * @param tabName the tab to set the value to
+     * @param key the name of the shuffleboard entry
+     * @param value the value of the shuffleboard entry
+     * @implNote must be called periodically to update
      */
-    public static NetworkTableEntry getEntry(String table, String subTable, String key) {
-        // if the component exists, get it using the NetworkTable, and if not, create the component
-        try {
-            return NetworkTableInstance.getDefault().getTable(table).getSubTable(subTable).getEntry(key);
-        } catch (Exception e) {
-            System.out.println("entry grab failed: " + e);
-            return null;
+    public static void setPose3d(String tabName, String key, Pose3d value) {
+        structHandle(tabName, key, Pose3d.struct).set(value);
+    }
+
+    /**
+     * Creates and sets a Pose3d to NT through shuffleboard if the level is within the verbosity threshold
+     * @param level the verbosity level of the value, suppressed calls return before any lookup
+     * @param tabName the tab this shuffleboard entry will be placed in
+     * @param key the name of the shuffleboard entry
+     * @param value the value of the shuffleboard entry
+     * @implNote must be called periodically to update
+     */
+    public static void setPose3d(Verbosity level, String tabName, String key, Pose3d value) {
+        if(!isEnabled(level)) {
+            return;
         }
+        setPose3d(tabName, key, value);
     }
 
+    /**
+     * Creates and sets a Pose4d to NT through shuffleboard as a Pose3d in AdvantageScope Struct format
+     * @param tabName the tab to set the value to
+     * @param key the name of the shuffleboard entry
+     * @param value the value of the shuffleboard entry
+     * @implNote must be called periodically to update, latency and timestamp are not published
+     */
+    public static void setPose4d(String tabName, String key, Pose4d value) {
+        structHandle(tabName, key, Pose3d.struct).set(value);
+    }
 
     /**
-     * Set a generic object to NT through shuffleboard
+     * Creates and sets a Pose4d to NT through shuffleboard as a Pose3d if the level is within the verbosity threshold
+     * @param level the verbosity level of the value, suppressed calls return before any lookup
      * @param tabName the tab this shuffleboard entry will be placed in
      * @param key the name of the shuffleboard entry
      * @param value the value of the shuffleboard entry
+     * @implNote must be called periodically to update, latency and timestamp are not published
      */
-    public static void set(String tabName, String key, Object value) {
-        ShuffleboardTab tab = Shuffleboard.getTab(tabName);
+    public static void setPose4d(Verbosity level, String tabName, String key, Pose4d value) {
+        if(!isEnabled(level)) {
+            return;
+        }
+        setPose4d(tabName, key, value);
+    }
 
-        String index = tabName + "/" + key;
+    /**
+     * Creates and sets a Translation2d to NT through shuffleboard in AdvantageScope Struct format
+     * @param tabName the tab to set the value to
+     * @param key the name of the shuffleboard entry
+     * @param value the value of the shuffleboard entry
+     * @implNote must be called periodically to update
+     */
+    public static void setTranslation2d(String tabName, String key, Translation2d value) {
+        structHandle(tabName, key, Translation2d.struct).set(value);
+    }
 
-        /* logic breakdown:
-         * if the key does not exist, create it
-         * if they exists but is not updated, update it
-         * else, the key exists and is up-to-date, so nothing needs to be done
-         */
-        if(!keyList.containsKey(index)) {
-            keyList.put(index, value);
-            tab.add(key, value);
-        } else if(!keyList.get(index).equals(value)) {
-            keyList.put(index, value);
-            NetworkTableInstance.getDefault().getTable("Shuffleboard").getSubTable(tabName).getEntry(key).setValue(value);
+    /**
+     * Creates and sets a Translation2d to NT through shuffleboard if the level is within the verbosity threshold
+     * @param level the verbosity level of the value, suppressed calls return before any lookup
+     * @param tabName the tab this shuffleboard entry will be placed in
+     * @param key the name of the shuffleboard entry
+     * @param value the value of the shuffleboard entry
+     * @implNote must be called periodically to update
+     */
+    public static void setTranslation2d(Verbosity level, String tabName, String key, Translation2d value) {
+        if(!isEnabled(level)) {
+            return;
         }
+        setTranslation2d(tabName, key, value);
     }
 
     /**
-     * @deprecated use {@link #send(String, String, Sendable)} instead
-     * 
-     * Set a {@link <a href="https://docs.wpilib.org/en/stable/docs/software/telemetry/robot-telemetry-with-sendable.html">Sendable</a>} object to NT through shuffleboard
+     * Creates and sets a Rotation2d to NT through shuffleboard in AdvantageScope Struct format
+     * @param tabName the tab to set the value to
+     * @param key the name of the shuffleboard entry
+     * @param value the value of the shuffleboard entry
+     * @implNote must be called periodically to update
+     */
+    public static void setRotation2d(String tabName, String key, Rotation2d value) {
+        structHandle(tabName, key, Rotation2d.struct).set(value);
+    }
+
+    /**
+     * Creates and sets a Rotation2d to NT through shuffleboard if the level is within the verbosity threshold
+     * @param level the verbosity level of the value, suppressed calls return before any lookup
      * @param tabName the tab this shuffleboard entry will be placed in
      * @param key the name of the shuffleboard entry
      * @param value the value of the shuffleboard entry
+     * @implNote must be called periodically to update
      */
-    public static void set(String tabName, String key, Sendable value) {
-        ShuffleboardTab tab = Shuffleboard.getTab(tabName);
+    public static void setRotation2d(Verbosity level, String tabName, String key, Rotation2d value) {
+        if(!isEnabled(level)) {
+            return;
+        }
+        setRotation2d(tabName, key, value);
+    }
 
-        String index = tabName + "/" + key;
+    /**
+     * Creates and sets a Pose2d array to NT through shuffleboard in AdvantageScope Struct format
+     * @param tabName the tab to set the value to
+     * @param key the name of the shuffleboard entry
+     * @param value the value of the shuffleboard entry, may be a reused buffer
+     * @implNote must be called periodically to update
+     */
+    public static void setPose2dArray(String tabName, String key, Pose2d[] value) {
+        structArrayHandle(tabName, key, Pose2d.struct).set(value);
+    }
 
-        /* logic breakdown:
-         * if the key does not exist, create it. this is it because its a supplier
-         */
-        if(!keyList.containsKey(index)) {
-            keyList.put(index, value);
-            tab.add(key, value);
+    /**
+     * Creates and sets a Pose2d array to NT through shuffleboard if the level is within the verbosity threshold
+     * @param level the verbosity level of the value, suppressed calls return before any lookup
+     * @param tabName the tab this shuffleboard entry will be placed in
+     * @param key the name of the shuffleboard entry
+     * @param value the value of the shuffleboard entry, may be a reused buffer
+     * @implNote must be called periodically to update
+     */
+    public static void setPose2dArray(Verbosity level, String tabName, String key, Pose2d[] value) {
+        if(!isEnabled(level)) {
+            return;
         }
+        setPose2dArray(tabName, key, value);
+    }
+
+    /**
+     * Creates and sets a Pose3d array to NT through shuffleboard in AdvantageScope Struct format
+     * @param tabName the tab to set the value to
+     * @param key the name of the shuffleboard entry
+     * @param value the value of the shuffleboard entry, may be a reused buffer
+     * @implNote must be called periodically to update
+     */
+    public static void setPose3dArray(String tabName, String key, Pose3d[] value) {
+        structArrayHandle(tabName, key, Pose3d.struct).set(value);
+    }
+
+    /**
+     * Creates and sets a Pose3d array to NT through shuffleboard if the level is within the verbosity threshold
+     * @param level the verbosity level of the value, suppressed calls return before any lookup
+     * @param tabName the tab this shuffleboard entry will be placed in
+     * @param key the name of the shuffleboard entry
+     * @param value the value of the shuffleboard entry, may be a reused buffer
+     * @implNote must be called periodically to update
+     */
+    public static void setPose3dArray(Verbosity level, String tabName, String key, Pose3d[] value) {
+        if(!isEnabled(level)) {
+            return;
+        }
+        setPose3dArray(tabName, key, value);
+    }
+
+    /**
+     * Sets where entries are written to, e.g. NT, DataLog and/or an in-memory {@link TelemetryRecorder}.
+     * Entries only get a Shuffleboard layout when a sink {@link TelemetrySink#isShuffleboard() asks for it}.
+     * @param newSinks the sinks every tab without its own sinks writes to, at least one
+     * @implNote only affects entries created afterwards, so call this before any telemetry is published
+     */
+    public static void setSinks(TelemetrySink... newSinks) {
+        sinks = checkSinks(newSinks);
+    }
+
+    /**
+     * Sets where the entries of one tab are written to, e.g. a {@link DataLogSink} for high rate values
+     * that don't need to go over NT
+     * @param tabName the tab to set the sinks of
+     * @param tabSinks the sinks this tab writes to, at least one
+     * @implNote only affects entries created afterwards, so call this before the tab is published
+     */
+    public static void setTabSinks(String tabName, TelemetrySink... tabSinks) {
+        tabSinkList.put(tabName, checkSinks(tabSinks));
+    }
+
+    /**
+     * Packs the numeric entries of a tab into one frame per loop, see {@link FrameSink}.
+     * Packed entries are read with a {@link FrameDecoder} and don't appear in the Shuffleboard layout.
+     * Packed values never reach {@code Shuffleboard/<tab>/<key>}, so the getters and subscriptions
+     * can't read them and throw for packed tabs, keep dashboard inputs on an unpacked tab.
+     * @param tabName the tab to pack
+     * @implNote only affects entries created afterwards, so call this before the tab is published
+     */
+    public static synchronized void packTab(String tabName) {
+        if(frameSink == null) {
+            frameSink = new FrameSink();
+        }
+        setTabSinks(tabName, frameSink);
+    }
+
+    private static TelemetrySink[] checkSinks(TelemetrySink[] newSinks) {
+        if(newSinks.length == 0) {
+            throw new IllegalArgumentException("at least one telemetry sink is required");
+        }
+        for(TelemetrySink sink : newSinks) {
+            allSinks.addIfAbsent(sink);
+        }
+        return newSinks.clone();
+    }
+
+    private static TelemetrySink[] getSinks(String tabName) {
+        return tabSinkList.getOrDefault(tabName, sinks);
+    }
+
+    private static boolean isShuffleboard(String tabName) {
+        for(TelemetrySink sink : getSinks(tabName)) {
+            if(sink.isShuffleboard()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * opens a channel for an entry in every sink of its tab, combined into one
+     */
+    private static <C> C openChannel(String tabName, Function<TelemetrySink, C> open, BinaryOperator<C> combine) {
+        TelemetrySink[] tabSinks = getSinks(tabName);
+        C channel = open.apply(tabSinks[0]);
+        for(int i = 1; i < tabSinks.length; i++) {
+            channel = combine.apply(channel, open.apply(tabSinks[i]));
+        }
+        return channel;
+    }
+
+    /**
+     * Buffers writes made through setters and handles until {@link #flush()}, so values changed
+     * within a loop land together at the end of it. The last value per key wins.
+     * {@link frc.thunder.LightningRobot} flushes at the end of every robotPeriodic.
+     * @param enabled true to buffer writes, false to write straight through (flushing anything pending)
+     * @param flushNT true to also flush NT to the network after every {@link #flush()}
+     */
+    public static void setBuffered(boolean enabled, boolean flushNT) {
+        flushNetworkTables = flushNT;
+        buffered = enabled;
+        if(!enabled) {
+            flush();
+        }
+    }
+
+    /**
+     * @return true if writes are buffered until {@link #flush()}
+     */
+    public static boolean isBuffered() {
+        return buffered;
+    }
+
+    /**
+     * Adds widgets queued by other threads, writes every value buffered since the last flush,
+     * and publishes batching sinks like packed tab frames
+     * @implNote called by {@link frc.thunder.LightningRobot} at the end of every loop, call it from the layout thread
+     */
+    public static void flush() {
+        applyLayout();
+
+        boolean wrote = false;
+        for(TelemetryHandle handle : allHandles) {
+            if(handle.dirty) {
+                handle.dirty = false;
+                handle.send();
+                wrote = true;
+            }
+        }
+
+        for(TelemetrySink sink : allSinks) {
+            wrote |= sink.flush();
+        }
+
+        if(wrote && flushNetworkTables) {
+            NetworkTableInstance.getDefault().flush();
+        }
+    }
+
+    /**
+     * Resolves a double entry once, so it can be published with no per call lookups
+     * e.g. {@code LightningShuffleboard.doubleHandle("Drive", "x").set(v)}
+     * @param tabName the tab this shuffleboard entry will be placed in
+     * @param key the name of the shuffleboard entry
+     * @return the handle for the entry, created with a value of 0 if it does not exist
+     * @implNote keep the handle in a field, resolving it each loop defeats the purpose
+     */
+    public static DoubleHandle doubleHandle(String tabName, String key) {
+        return doubleHandle(tabName, key, 0);
+    }
+
+    /**
+     * Resolves a double entry once, so it can be published with no per call lookups
+     * @param tabName the tab this shuffleboard entry will be placed in
+     * @param key the name of the shuffleboard entry
+     * @param initialValue the value of the shuffleboard entry if it does not exist yet
+     * @return the handle for the entry
+     */
+    public static DoubleHandle doubleHandle(String tabName, String key, double initialValue) {
+        TelemetryHandle handle = lookup(tabName, key);
+
+        if(handle == null) {
+            handle = resolve(tabName, key, initialValue, (index, current) -> {
+                DoubleHandle doubleHandle = new DoubleHandle(tabName, key, openChannel(tabName, sink -> sink.doubleChannel(tabName, key), DoubleConsumer::andThen), current instanceof Double ? (Double) current : initialValue);
+                doubleHandle.setPolicy(policyList.getOrDefault(index, tabPolicyList.getOrDefault(tabName, PublishPolicy.ALWAYS)));
+                return doubleHandle;
+            });
+        }
+        return cast(handle, DoubleHandle.class);
+    }
+
+    /**
+     * Sets how often a double entry may be republished, see {@link PublishPolicy}
+     * @param tabName the tab of the shuffleboard entry
+     * @param key the name of the shuffleboard entry
+     * @param policy the publish policy, overrides the tab default
+     */
+    public static void setPolicy(String tabName, String key, PublishPolicy policy) {
+        policyList.put(tabName + "/" + key, policy);
+
+        TelemetryHandle handle = lookup(tabName, key);
+        if(handle instanceof DoubleHandle) {
+            ((DoubleHandle) handle).setPolicy(policy);
+        }
+    }
+
+    /**
+     * Sets the default publish policy of every double entry in a tab, see {@link PublishPolicy}
+     * @param tabName the tab to set the default for
+     * @param policy the publish policy, entries with their own policy keep it
+     */
+    public static void setTabPolicy(String tabName, PublishPolicy policy) {
+        tabPolicyList.put(tabName, policy);
+
+        ConcurrentHashMap<String, TelemetryHandle> tab = handleList.get(tabName);
+        if(tab != null) {
+            for(TelemetryHandle handle : tab.values()) {
+                if(handle instanceof DoubleHandle && !policyList.containsKey(tabName + "/" + handle.getKey())) {
+                    ((DoubleHandle) handle).setPolicy(policy);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sets the global verbosity threshold, entries above it are not published. Entries that
+     * become enabled republish their latest value.
+     * @param threshold the most verbose level to publish, e.g. {@link Verbosity#MATCH} in competition
+     */
+    public static void setVerbosity(Verbosity threshold) {
+        Verbosity previous = verbosity;
+        verbosity = threshold;
+
+        for(TelemetryHandle handle : allHandles) {
+            if(!handle.getVerbosity().isWithin(previous) && handle.getVerbosity().isWithin(threshold)) {
+                handle.publish();
+            }
+        }
+    }
+
+    /**
+     * @return the global verbosity threshold
+     */
+    public static Verbosity getVerbosity() {
+        return verbosity;
+    }
+
+    /**
+     * @param level the verbosity level to check
+     * @return true if values at this level are published under the global threshold
+     */
+    public static boolean isEnabled(Verbosity level) {
+        return level.isWithin(verbosity);
+    }
+
+    /**
+     * Sets the verbosity level of an entry, it is only published while the level is within
+     * the global threshold
+     * @param tabName the tab of the shuffleboard entry
+     * @param key the name of the shuffleboard entry
+     * @param level the verbosity level, overrides the tab level
+     */
+    public static void setVerbosity(String tabName, String key, Verbosity level) {
+        verbosityList.put(tabName + "/" + key, level);
+
+        TelemetryHandle handle = lookup(tabName, key);
+        if(handle != null) {
+            handle.setVerbosity(level);
+        }
+    }
+
+    /**
+     * Sets the default verbosity level of every entry in a tab
+     * @param tabName the tab to set the level of
+     * @param level the verbosity level, entries with their own level keep it
+     */
+    public static void setTabVerbosity(String tabName, Verbosity level) {
+        tabVerbosityList.put(tabName, level);
+
+        ConcurrentHashMap<String, TelemetryHandle> tab = handleList.get(tabName);
+        if(tab != null) {
+            for(TelemetryHandle handle : tab.values()) {
+                if(!verbosityList.containsKey(tabName + "/" + handle.getKey())) {
+                    handle.setVerbosity(level);
+                }
+            }
+        }
+    }
+
+    /**
+     * Resolves a boolean entry once, so it can be published with no per call lookups
+     * @param tabName the tab this shuffleboard entry will be placed in
+     * @param key the name of the shuffleboard entry
+     * @return the handle for the entry, created with a value of false if it does not exist
+     */
+    public static BooleanHandle boolHandle(String tabName, String key) {
+        return boolHandle(tabName, key, false);
+    }
+
+    /**
+     * Resolves a boolean entry once, so it can be published with no per call lookups
+     * @param tabName the tab this shuffleboard entry will be placed in
+     * @param key the name of the shuffleboard entry
+     * @param initialValue the value of the shuffleboard entry if it does not exist yet
+     * @return the handle for the entry
+     */
+    public static BooleanHandle boolHandle(String tabName, String key, boolean initialValue) {
+        TelemetryHandle handle = lookup(tabName, key);
+
+        if(handle == null) {
+            handle = resolve(tabName, key, initialValue, (index, current) -> new BooleanHandle(tabName, key, openChannel(tabName, sink -> sink.booleanChannel(tabName, key), (first, next) -> value -> { first.accept(value); next.accept(value); }), current instanceof Boolean ? (Boolean) current : initialValue));
+        }
+        return cast(handle, BooleanHandle.class);
+    }
+
+    /**
+     * Resolves a string entry once, so it can be published with no per call lookups
+     * @param tabName the tab this shuffleboard entry will be placed in
+     * @param key the name of the shuffleboard entry
+     * @return the handle for the entry, created with an empty string if it does not exist
+     */
+    public static StringHandle stringHandle(String tabName, String key) {
+        return stringHandle(tabName, key, "");
+    }
+
+    /**
+     * Resolves a string entry once, so it can be published with no per call lookups
+     * @param tabName the tab this shuffleboard entry will be placed in
+     * @param key the name of the shuffleboard entry
+     * @param initialValue the value of the shuffleboard entry if it does not exist yet
+     * @return the handle for the entry
+     */
+    public static StringHandle stringHandle(String tabName, String key, String initialValue) {
+        TelemetryHandle handle = lookup(tabName, key);
+
+        if(handle == null) {
+            handle = resolve(tabName, key, initialValue, (index, current) -> new StringHandle(tabName, key, openChannel(tabName, sink -> sink.stringChannel(tabName, key), Consumer::andThen), current instanceof String ? (String) current : initialValue));
+        }
+        return cast(handle, StringHandle.class);
+    }
+
+    /**
+     * Resolves a double array entry once, so it can be published with no per call lookups
+     * @param tabName the tab this shuffleboard entry will be placed in
+     * @param key the name of the shuffleboard entry
+     * @return the handle for the entry, created empty if it does not exist
+     */
+    public static DoubleArrayHandle doubleArrayHandle(String tabName, String key) {
+        return doubleArrayHandle(tabName, key, new double[0]);
+    }
+
+    /**
+     * Resolves a double array entry once, so it can be published with no per call lookups
+     * @param tabName the tab this shuffleboard entry will be placed in
+     * @param key the name of the shuffleboard entry
+     * @param initialValue the value of the shuffleboard entry if it does not exist yet
+     * @return the handle for the entry
+     */
+    public static DoubleArrayHandle doubleArrayHandle(String tabName, String key, double[] initialValue) {
+        TelemetryHandle handle = lookup(tabName, key);
+
+        if(handle == null) {
+            handle = resolve(tabName, key, initialValue, (index, current) -> new DoubleArrayHandle(tabName, key, openChannel(tabName, sink -> sink.doubleArrayChannel(tabName, key), Consumer::andThen), current instanceof double[] ? (double[]) current : initialValue));
+        }
+        return cast(handle, DoubleArrayHandle.class);
+    }
+
+    /**
+     * Resolves a boolean array entry once, so it can be published with no per call lookups
+     * @param tabName the tab this shuffleboard entry will be placed in
+     * @param key the name of the shuffleboard entry
+     * @return the handle for the entry, created empty if it does not exist
+     */
+    public static BooleanArrayHandle boolArrayHandle(String tabName, String key) {
+        return boolArrayHandle(tabName, key, new boolean[0]);
+    }
+
+    /**
+     * Resolves a boolean array entry once, so it can be published with no per call lookups
+     * @param tabName the tab this shuffleboard entry will be placed in
+     * @param key the name of the shuffleboard entry
+     * @param initialValue the value of the shuffleboard entry if it does not exist yet
+     * @return the handle for the entry
+     */
+    public static BooleanArrayHandle boolArrayHandle(String tabName, String key, boolean[] initialValue) {
+        TelemetryHandle handle = lookup(tabName, key);
+
+        if(handle == null) {
+            handle = resolve(tabName, key, initialValue, (index, current) -> new BooleanArrayHandle(tabName, key, openChannel(tabName, sink -> sink.booleanArrayChannel(tabName, key), Consumer::andThen), current instanceof boolean[] ? (boolean[]) current : initialValue));
+        }
+        return cast(handle, BooleanArrayHandle.class);
+    }
+
+    /**
+     * Resolves a string array entry once, so it can be published with no per call lookups
+     * @param tabName the tab this shuffleboard entry will be placed in
+     * @param key the name of the shuffleboard entry
+     * @return the handle for the entry, created empty if it does not exist
+     */
+    public static StringArrayHandle stringArrayHandle(String tabName, String key) {
+        return stringArrayHandle(tabName, key, new String[0]);
+    }
+
+    /**
+     * Resolves a string array entry once, so it can be published with no per call lookups
+     * @param tabName the tab this shuffleboard entry will be placed in
+     * @param key the name of the shuffleboard entry
+     * @param initialValue the value of the shuffleboard entry if it does not exist yet
+     * @return the handle for the entry
+     */
+    public static StringArrayHandle stringArrayHandle(String tabName, String key, String[] initialValue) {
+        TelemetryHandle handle = lookup(tabName, key);
+
+        if(handle == null) {
+            handle = resolve(tabName, key, initialValue, (index, current) -> new StringArrayHandle(tabName, key, openChannel(tabName, sink -> sink.stringArrayChannel(tabName, key), Consumer::andThen), current instanceof String[] ? (String[]) current : initialValue));
+        }
+        return cast(handle, StringArrayHandle.class);
+    }
+
+    /**
+     * Resolves a struct entry once, so it can be published with no per call lookups.
+     * Struct entries are not added to the Shuffleboard layout, AdvantageScope decodes them from NT.
+     * @param tabName the tab this entry will be placed in
+     * @param key the name of the entry
+     * @param struct the struct serializer, e.g. {@code Pose3d.struct}
+     * @return the handle for the entry
+     */
+    public static <T> StructHandle<T> structHandle(String tabName, String key, Struct<T> struct) {
+        TelemetryHandle handle = lookup(tabName, key);
+
+        if(handle == null) {
+            handle = resolveStruct(tabName, key, struct, () -> new StructHandle<T>(tabName, key, struct, openChannel(tabName, sink -> sink.structChannel(tabName, key, struct), Consumer::andThen)));
+        }
+
+        @SuppressWarnings("unchecked")
+        StructHandle<T> structHandle = cast(handle, StructHandle.class);
+        checkStruct(structHandle, structHandle.getStruct(), struct);
+        return structHandle;
+    }
+
+    /**
+     * Resolves a struct array entry once, so it can be published with no per call lookups.
+     * Struct entries are not added to the Shuffleboard layout, AdvantageScope decodes them from NT.
+     * @param tabName the tab this entry will be placed in
+     * @param key the name of the entry
+     * @param struct the struct serializer of the elements, e.g. {@code Pose2d.struct}
+     * @return the handle for the entry
+     */
+    public static <T> StructArrayHandle<T> structArrayHandle(String tabName, String key, Struct<T> struct) {
+        TelemetryHandle handle = lookup(tabName, key);
+
+        if(handle == null) {
+            handle = resolveStruct(tabName, key, struct, () -> new StructArrayHandle<T>(tabName, key, struct, openChannel(tabName, sink -> sink.structArrayChannel(tabName, key, struct), Consumer::andThen)));
+        }
+
+        @SuppressWarnings("unchecked")
+        StructArrayHandle<T> structHandle = cast(handle, StructArrayHandle.class);
+        checkStruct(structHandle, structHandle.getStruct(), struct);
+        return structHandle;
+    }
+
+    /**
+     * Subscribes to a double entry once, an NT listener pushes dashboard changes into the subscription
+     * so reading it periodically costs a field read
+     * @param tabName the tab to read the value from
+     * @param key the name of the shuffleboard entry
+     * @param defaultValue the initial entry value if it does not exist yet
+     * @return the subscription for the entry
+     */
+    public static DoubleSubscription doubleSubscription(String tabName, String key, double defaultValue) {
+        TelemetrySubscription subscription = lookupSubscription(tabName, key);
+
+        if(subscription == null) {
+            subscription = subscribe(tabName, key, defaultValue, () -> new DoubleSubscription(tabName, key, defaultValue));
+        }
+        return castSubscription(subscription, DoubleSubscription.class);
+    }
+
+    /**
+     * Subscribes to a boolean entry once, an NT listener pushes dashboard changes into the subscription
+     * so reading it periodically costs a field read
+     * @param tabName the tab to read the value from
+     * @param key the name of the shuffleboard entry
+     * @param defaultValue the initial entry value if it does not exist yet
+     * @return the subscription for the entry
+     */
+    public static BooleanSubscription boolSubscription(String tabName, String key, boolean defaultValue) {
+        TelemetrySubscription subscription = lookupSubscription(tabName, key);
+
+        if(subscription == null) {
+            subscription = subscribe(tabName, key, defaultValue, () -> new BooleanSubscription(tabName, key, defaultValue));
+        }
+        return castSubscription(subscription, BooleanSubscription.class);
+    }
+
+    /**
+     * Subscribes to a string entry once, an NT listener pushes dashboard changes into the subscription
+     * so reading it periodically costs a field read
+     * @param tabName the tab to read the value from
+     * @param key the name of the shuffleboard entry
+     * @param defaultValue the initial entry value if it does not exist yet
+     * @return the subscription for the entry
+     */
+    public static StringSubscription stringSubscription(String tabName, String key, String defaultValue) {
+        TelemetrySubscription subscription = lookupSubscription(tabName, key);
+
+        if(subscription == null) {
+            subscription = subscribe(tabName, key, defaultValue, () -> new StringSubscription(tabName, key, defaultValue));
+        }
+        return castSubscription(subscription, StringSubscription.class);
+    }
+
+    /**
+     * @return every handle that has been resolved
+     */
+    static List<TelemetryHandle> getHandles() {
+        return allHandles;
+    }
+
+    /**
+     * @return the handle for the tab/key, or null if none has been resolved
+     */
+    private static TelemetryHandle lookup(String tabName, String key) {
+        ConcurrentHashMap<String, TelemetryHandle> tab = handleList.get(tabName);
+        return tab == null ? null : tab.get(key);
+    }
+
+    /**
+     * creates the handle for a tab/key exactly once, even if several threads race to create it
+     */
+    private static TelemetryHandle resolve(String tabName, String key, Object initialValue, BiFunction<String, Object, TelemetryHandle> factory) {
+        return handleList.computeIfAbsent(tabName, tab -> new ConcurrentHashMap<String, TelemetryHandle>()).computeIfAbsent(key, k -> {
+            String index = tabName + "/" + key;
+            Verbosity level = levelOf(tabName, key);
+            //suppressed entries claim their key but only get a widget once their level is enabled
+            boolean hidden = false;
+            if(isShuffleboard(tabName) && isEnabled(level)) {
+                addToTab(tabName, key, index, initialValue);
+            } else {
+                hidden = keyList.putIfAbsent(index, initialValue) == null && isShuffleboard(tabName);
+            }
+            TelemetryHandle handle = factory.apply(index, keyList.get(index));
+            if(hidden) {
+                hiddenWidgets.put(handle, keyList.get(index));
+                handle.widgetPending = true;
+            }
+            handle.setVerbosity(level);
+            allHandles.add(handle);
+            // sinks other than the Shuffleboard layout only see writes, so write the initial value once
+            handle.publish();
+            return handle;
+        });
+    }
+
+    /**
+     * creates a struct handle exactly once, claiming its key without adding it to the Shuffleboard layout
+     */
+    private static TelemetryHandle resolveStruct(String tabName, String key, Struct<?> struct, Supplier<TelemetryHandle> factory) {
+        return handleList.computeIfAbsent(tabName, tab -> new ConcurrentHashMap<String, TelemetryHandle>()).computeIfAbsent(key, k -> {
+            if(keyList.putIfAbsent(tabName + "/" + key, struct) != null) {
+                throw new IllegalArgumentException(tabName + "/" + key + " is already used by a non struct entry");
+            }
+            TelemetryHandle handle = factory.get();
+            handle.setVerbosity(levelOf(tabName, key));
+            allHandles.add(handle);
+            return handle;
+        });
+    }
+
+    /**
+     * @return the verbosity level set for the entry or its tab, {@link Verbosity#MATCH} if neither has one
+     */
+    private static Verbosity levelOf(String tabName, String key) {
+        if(verbosityList.isEmpty() && tabVerbosityList.isEmpty()) {
+            return Verbosity.MATCH;
+        }
+        return verbosityList.getOrDefault(tabName + "/" + key, tabVerbosityList.getOrDefault(tabName, Verbosity.MATCH));
+    }
+
+    /**
+     * adds the widget a suppressed handle skipped at creation, called by the handle when it first publishes
+     */
+    static void showWidget(TelemetryHandle handle) {
+        Object value = hiddenWidgets.remove(handle);
+        handle.widgetPending = false;
+        if(value != null) {
+            layoutWidget(new PendingWidget(handle.getTabName(), handle.getKey(), value));
+        }
+    }
+
+    private static void checkStruct(TelemetryHandle handle, Struct<?> existing, Struct<?> requested) {
+        if(existing != requested) {
+            throw new IllegalArgumentException(handle.getTabName() + "/" + handle.getKey() + " is already a " + existing.getTypeName() + " struct");
+        }
+    }
+
+    /**
+     * @return the subscription for the tab/key, or null if none has been created
+     */
+    private static TelemetrySubscription lookupSubscription(String tabName, String key) {
+        ConcurrentHashMap<String, TelemetrySubscription> tab = subscriptionList.get(tabName);
+        return tab == null ? null : tab.get(key);
+    }
+
+    /**
+     * creates the subscription for a tab/key exactly once, even if several threads race to create it
+     */
+    private static TelemetrySubscription subscribe(String tabName, String key, Object defaultValue, Supplier<TelemetrySubscription> factory) {
+        //the subscription reads the Shuffleboard entry, which a packed tab never writes
+        for(TelemetrySink sink : getSinks(tabName)) {
+            if(sink instanceof FrameSink) {
+                throw new IllegalArgumentException(tabName + "/" + key + " is in a packed tab, read it with a FrameDecoder");
+            }
+        }
+
+        return subscriptionList.computeIfAbsent(tabName, tab -> new ConcurrentHashMap<String, TelemetrySubscription>()).computeIfAbsent(key, k -> {
+            addToTab(tabName, key, tabName + "/" + key, defaultValue);
+            TelemetrySubscription subscription = factory.get();
+            subscription.listen(getShuffleboardEntry(tabName, key));
+            return subscription;
+        });
+    }
+
+    private static <T extends TelemetrySubscription> T castSubscription(TelemetrySubscription subscription, Class<T> type) {
+        if(!type.isInstance(subscription)) {
+            throw new IllegalArgumentException(subscription.getTabName() + "/" + subscription.getKey() + " is already a " + subscription.getClass().getSimpleName());
+        }
+        return type.cast(subscription);
+    }
+
+    /**
+     * adds a new entry to its tab exactly once, even if several threads race to create it
+     * @return true if this call added the entry, false if it already existed
+     */
+    private static boolean addToTab(String tabName, String key, String index, Object value) {
+        if(keyList.putIfAbsent(index, value) != null) {
+            return false;
+        }
+
+        layoutWidget(new PendingWidget(tabName, key, value));
+        return true;
+    }
+
+    /**
+     * adds a widget now if this is the layout thread, or queues it for the next flush
+     */
+    private static void layoutWidget(PendingWidget widget) {
+        Thread thread = layoutThread;
+        if(thread == null || thread == Thread.currentThread()) {
+            widget.add();
+        } else {
+            pendingLayout.add(widget);
+        }
+    }
+
+    /**
+     * a widget waiting to be added to its tab on the layout thread
+     */
+    private static class PendingWidget {
+        private final String tabName;
+        private final String key;
+        private final Object value;
+
+        private PendingWidget(String tabName, String key, Object value) {
+            this.tabName = tabName;
+            this.key = key;
+            this.value = value;
+        }
+
+        private void add() {
+            synchronized(shuffleboardLock) {
+                if(value instanceof Sendable) {
+                    Shuffleboard.getTab(tabName).add(key, (Sendable) value);
+                } else {
+                    Shuffleboard.getTab(tabName).add(key, value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sets the thread allowed to change the Shuffleboard layout, which must be the thread that calls
+     * {@code Shuffleboard.update()}. Entries first created on any other thread get their widget queued
+     * and added by the next {@link #flush()}; values written before then are already on NT and kept.
+     * {@link frc.thunder.LightningRobot} sets this to the main robot thread.
+     * @param thread the main robot thread, or null to add widgets on whichever thread creates the entry
+     */
+    public static void setLayoutThread(Thread thread) {
+        layoutThread = thread;
+    }
+
+    /**
+     * adds the widgets queued by other threads, must run on the layout thread
+     */
+    private static void applyLayout() {
+        PendingWidget widget;
+        while((widget = pendingLayout.poll()) != null) {
+            widget.add();
+        }
+    }
+
+    private static NetworkTableEntry getShuffleboardEntry(String tabName, String key) {
+        return NetworkTableInstance.getDefault().getTable("Shuffleboard").getSubTable(tabName).getEntry(key);
+    }
+
+    private static <T extends TelemetryHandle> T cast(TelemetryHandle handle, Class<T> type) {
+        if(!type.isInstance(handle)) {
+            throw new IllegalArgumentException(handle.getTabName() + "/" + handle.getKey() + " is already a " + handle.getClass().getSimpleName());
+        }
+        return type.cast(handle);
+    }
+
+    /**
+     * Set a {@link <a href="https://docs.wpilib.org/en/stable/docs/software/telemetry/robot-telemetry-with-sendable.html">Sendable</a>} object to NT through shuffleboard
+     * @param tabName the tab this shuffleboard entry will be placed in
+     * @param key the name of the shuffleboard entry
+     * @param value the value of the shuffleboard entry
+     */
+    public static void send(String tabName, String key, Sendable value) {
+        if(!isEnabled(levelOf(tabName, key))) {
+            return;
+        }
+        String index = tabName + "/" + key;
+
+        /* logic breakdown:
+         * if the key does not exist, create it. this is it because its a supplier
+         */
+        addToTab(tabName, key, index, value);
+    }
+
+    /**
+     * grabs a NT entry
+     * @param table the table to grab the entry from ("Shuffleboard" for shuffleboard)
+     * @param subTable the subtable to grab the entry from (tab name for shuffleboard)
+     * @param key the name of the NT entry
+     * @return the NT entry
+     * 
+     * @implNote if entry does not exist, returns null. will NOT create entry automatically.
+     */
+    public static NetworkTableEntry getEntry(String table, String subTable, String key) {
+        // if the component exists, get it using the NetworkTable, and if not, create the component
+        try {
+            return NetworkTableInstance.getDefault().getTable(table).getSubTable(subTable).getEntry(key);
+        } catch (Exception e) {
+            System.out.println("entry grab failed: " + e);
+            return null;
+        }
+    }
+
+
+    /**
+     * Set a generic object to NT through shuffleboard
+     * @param tabName the tab this shuffleboard entry will be placed in
+     * @param key the name of the shuffleboard entry
+     * @param value the value of the shuffleboard entry
+     */
+    public static void set(String tabName, String key, Object value) {
+        // geometry can't be converted to an NT value, so publish it as a struct instead
+        if(value instanceof Pose2d) {
+            setPose2d(tabName, key, (Pose2d) value);
+            return;
+        } else if(value instanceof Pose3d) {
+            setPose3d(tabName, key, (Pose3d) value);
+            return;
+        } else if(value instanceof Translation2d) {
+            setTranslation2d(tabName, key, (Translation2d) value);
+            return;
+        } else if(value instanceof Rotation2d) {
+            setRotation2d(tabName, key, (Rotation2d) value);
+            return;
+        } else if(!isEnabled(levelOf(tabName, key))) {
+            return;
+        }
+
+        String index = tabName + "/" + key;
+
+        /* logic breakdown:
+         * if the key does not exist, create it
+         * if they exists but is not updated, update it
+         * else, the key exists and is up-to-date, so nothing needs to be done
+         */
+        if(!addToTab(tabName, key, index, value) && !value.equals(keyList.put(index, value))) {
+            NetworkTableInstance.getDefault().getTable("Shuffleboard").getSubTable(tabName).getEntry(key).setValue(value);
+        }
+    }
+
+    /**
+     * @deprecated use {@link #send(String, String, Sendable)} instead
+     * 
+     * Set a {@link <a href="https://docs.wpilib.org/en/stable/docs/software/telemetry/robot-telemetry-with-sendable.html">Sendable</a>} object to NT through shuffleboard
+     * @param tabName the tab this shuffleboard entry will be placed in
+     * @param key the name of the shuffleboard entry
+     * @param value the value of the shuffleboard entry
+     */
+    public static void set(String tabName, String key, Sendable value) {
+        if(!isEnabled(levelOf(tabName, key))) {
+            return;
+        }
+        String index = tabName + "/" + key;
+
+        /* logic breakdown:
+         * if the key does not exist, create it. this is it because its a supplier
+         */
+        addToTab(tabName, key, index, value);
     }
 }
@@ -1,116 +1,356 @@
 package frc.thunder.shuffleboard;
 
+import java.util.Arrays;
 import java.util.function.BooleanSupplier;
 import java.util.function.DoubleSupplier;
 import java.util.function.Supplier;
 
 import edu.wpi.first.math.Pair;
-import edu.wpi.first.networktables.NetworkTableInstance;
-import edu.wpi.first.wpilibj.Timer;
-import edu.wpi.first.wpilibj.shuffleboard.Shuffleboard;
+import edu.wpi.first.util.struct.Struct;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.RobotController;
+import frc.thunder.timing.AdaptiveRate;
+import frc.thunder.timing.LoopTimer;
 
 /**
  * This class is used to create a periodic shuffleboard tab. This is useful for logging data that is
  * not updated often.
- * 
+ *
  * USAGE: Create a new LightningShuffleboardPeriodic object in the constructor of your subsystem
  * (with a key, object pair for each value you want to log); then place
  * LightningShuffleboardPeriodic.loop in your periodic method.
+ *
+ * Values can also be registered with the typed add methods, which never call their suppliers at
+ * registration. Every value is bound to a {@link LightningShuffleboard} handle once, and each loop
+ * publishes as many values as it owes to republish all of them once per period, up to a per-loop
+ * time budget.
  */
 
  @SuppressWarnings("unchecked")
 public class LightningShuffleboardPeriodic {
-    private Pair<String, Object>[] values;
-    private int length = 0;
-    private double lastTime = Timer.getFPGATimestamp();
-    private String tab;
-    private double loopTime;
+    // default time each loop may spend publishing, in seconds
+    private static final double DEFAULT_TICK_BUDGET = 0.0005;
+
+    private final String tab;
+    private final double period;
+    private double currentPeriod;
+    private AdaptiveRate rate = null;
+    private Slot[] slots = new Slot[0];
+    private boolean lazyRegistration = false;
+    private double tickBudget = DEFAULT_TICK_BUDGET;
+    private long lastTime = RobotController.getFPGATime();
+    private double owed = 0;
     private int index = 0;
+    private long behindSince = 0;
+    private boolean fallingBehind = false;
+    private boolean warned = false;
 
-    private enum Type {
-        DOUBLE, BOOLEAN, STRING, DOUBLE_ARRAY, BOOLEAN_ARRAY, STRING_ARRAY, NULL
-    }
+    /**
+     * A value of the tab, bound to its handle when registered or on its first publish
+     */
+    private static class Slot {
+        private Supplier<Runnable> binder;
+        private Runnable publish;
+
+        private Slot(Supplier<Runnable> binder) {
+            this.binder = binder;
+        }
 
-    Type type[];
+        private void bind() {
+            if (publish == null) {
+                publish = binder.get();
+                binder = null;
+            }
+        }
 
+        private void run() {
+            bind();
+            publish.run();
+        }
+    }
+
+    /**
+     * Creates a periodic tab, values can be passed here or registered with the typed add methods
+     *
+     * @implNote values passed here that are plain Suppliers are evaluated once on their first publish
+     * to find their type, use the typed add methods to avoid that
+     */
     public LightningShuffleboardPeriodic(String tab, double period, Pair<String, Object>... values) {
-        this.values = values;
-        length = values.length;
-        type = new Type[length];
         this.tab = tab;
-        this.loopTime = period;
+        this.period = period;
+        this.currentPeriod = period;
 
-        int i = 0;
         for (Pair<String, Object> value : values) {
-            if (value.getSecond() instanceof DoubleSupplier) {
-                Shuffleboard.getTab(tab).add(value.getFirst(), ((DoubleSupplier) value.getSecond()).getAsDouble());
-                type[i] = Type.DOUBLE;
-            } else if (value.getSecond() instanceof BooleanSupplier) {
-                Shuffleboard.getTab(tab).add(value.getFirst(), ((BooleanSupplier) value.getSecond()).getAsBoolean());
-                type[i] = Type.BOOLEAN;
-            } else if (value.getSecond() instanceof Supplier<?>) {
-                //the warnings are wrong, we do check the cast
-                if (((Supplier<?>) value.getSecond()).get() instanceof double[]) {
-                    Shuffleboard.getTab(tab).add(value.getFirst(), ((Supplier<double[]>) value.getSecond()).get());
-                    type[i] = Type.DOUBLE_ARRAY;
-                } else if (((Supplier<?>) value.getSecond()).get() instanceof boolean[]) {
-                    Shuffleboard.getTab(tab).add(value.getFirst(), ((Supplier<boolean[]>) value.getSecond()).get());
-                    type[i] = Type.BOOLEAN_ARRAY;
-                } else if (((Supplier<?>) value.getSecond()).get() instanceof String[]) {
-                    Shuffleboard.getTab(tab).add(value.getFirst(), ((Supplier<String[]>) value.getSecond()).get());
-                    type[i] = Type.STRING_ARRAY;
-                } else if (((Supplier<?>) value.getSecond()).get() instanceof String) {
-                    Shuffleboard.getTab(tab).add(value.getFirst(), ((Supplier<String>) value.getSecond()).get());
-                    type[i] = Type.STRING;
-                } else {
-                    type[i] = Type.NULL;
-                }
+            String key = value.getFirst();
+            Object source = value.getSecond();
+            if (source instanceof DoubleSupplier) {
+                addDouble(key, (DoubleSupplier) source);
+            } else if (source instanceof BooleanSupplier) {
+                addBoolean(key, (BooleanSupplier) source);
+            } else if (source instanceof Supplier<?>) {
+                // the type is only known once the supplier is called, so the first publish binds the slot
+                Slot slot = new Slot(null);
+                slot.publish = () -> slot.publish = sniff(key, (Supplier<?>) source);
+                slots = Arrays.copyOf(slots, slots.length + 1);
+                slots[slots.length - 1] = slot;
             } else {
-                type[i] = Type.NULL;
+                System.out.println(key + " is null");
             }
-            i++;
         }
     }
+
     //default period is 5 seconds
     public LightningShuffleboardPeriodic(String tab, Pair<String, Object>... values) {
         this(tab, 5d, values);
     }
 
-    
+    /**
+     * Delays creating the entries of values added afterwards until their first publish, which keeps
+     * NT and Shuffleboard work out of robot startup. Suppliers are never called at registration either way.
+     *
+     * @param lazy true to create entries on their first publish
+     * @return this, for chaining
+     */
+    public LightningShuffleboardPeriodic setLazyRegistration(boolean lazy) {
+        lazyRegistration = lazy;
+        return this;
+    }
+
+    /**
+     * @param key the name of the shuffleboard entry
+     * @param supplier called on every publish of this value
+     * @return this, for chaining
+     */
+    public LightningShuffleboardPeriodic addDouble(String key, DoubleSupplier supplier) {
+        return add(() -> {
+            DoubleHandle handle = LightningShuffleboard.doubleHandle(tab, key);
+            return () -> handle.set(supplier.getAsDouble());
+        });
+    }
+
+    /**
+     * @param key the name of the shuffleboard entry
+     * @param supplier called on every publish of this value
+     * @return this, for chaining
+     */
+    public LightningShuffleboardPeriodic addBoolean(String key, BooleanSupplier supplier) {
+        return add(() -> {
+            BooleanHandle handle = LightningShuffleboard.boolHandle(tab, key);
+            return () -> handle.set(supplier.getAsBoolean());
+        });
+    }
+
+    /**
+     * @param key the name of the shuffleboard entry
+     * @param supplier called on every publish of this value
+     * @return this, for chaining
+     */
+    public LightningShuffleboardPeriodic addString(String key, Supplier<String> supplier) {
+        return add(() -> {
+            StringHandle handle = LightningShuffleboard.stringHandle(tab, key);
+            return () -> handle.set(supplier.get());
+        });
+    }
+
+    /**
+     * @param key the name of the shuffleboard entry
+     * @param supplier called on every publish of this value, may return a reused buffer
+     * @return this, for chaining
+     */
+    public LightningShuffleboardPeriodic addDoubleArray(String key, Supplier<double[]> supplier) {
+        return add(() -> {
+            DoubleArrayHandle handle = LightningShuffleboard.doubleArrayHandle(tab, key);
+            return () -> handle.set(supplier.get());
+        });
+    }
+
+    /**
+     * @param key the name of the shuffleboard entry
+     * @param supplier called on every publish of this value, may return a reused buffer
+     * @return this, for chaining
+     */
+    public LightningShuffleboardPeriodic addBooleanArray(String key, Supplier<boolean[]> supplier) {
+        return add(() -> {
+            BooleanArrayHandle handle = LightningShuffleboard.boolArrayHandle(tab, key);
+            return () -> handle.set(supplier.get());
+        });
+    }
+
+    /**
+     * @param key the name of the shuffleboard entry
+     * @param supplier called on every publish of this value, may return a reused buffer
+     * @return this, for chaining
+     */
+    public LightningShuffleboardPeriodic addStringArray(String key, Supplier<String[]> supplier) {
+        return add(() -> {
+            StringArrayHandle handle = LightningShuffleboard.stringArrayHandle(tab, key);
+            return () -> handle.set(supplier.get());
+        });
+    }
+
+    /**
+     * @param key the name of the entry
+     * @param struct the struct serializer, e.g. {@code Pose2d.struct}
+     * @param supplier called on every publish of this value
+     * @return this, for chaining
+     */
+    public <T> LightningShuffleboardPeriodic addStruct(String key, Struct<T> struct, Supplier<T> supplier) {
+        return add(() -> {
+            StructHandle<T> handle = LightningShuffleboard.structHandle(tab, key, struct);
+            return () -> handle.set(supplier.get());
+        });
+    }
+
+    /**
+     * @param key the name of the entry
+     * @param struct the struct serializer of the elements, e.g. {@code Pose2d.struct}
+     * @param supplier called on every publish of this value, may return a reused buffer
+     * @return this, for chaining
+     */
+    public <T> LightningShuffleboardPeriodic addStructArray(String key, Struct<T> struct, Supplier<T[]> supplier) {
+        return add(() -> {
+            StructArrayHandle<T> handle = LightningShuffleboard.structArrayHandle(tab, key, struct);
+            return () -> handle.set(supplier.get());
+        });
+    }
+
+    private LightningShuffleboardPeriodic add(Supplier<Runnable> binder) {
+        Slot slot = new Slot(binder);
+        if (!lazyRegistration) {
+            slot.bind();
+        }
+
+        slots = Arrays.copyOf(slots, slots.length + 1);
+        slots[slots.length - 1] = slot;
+        return this;
+    }
+
+    /**
+     * Binds a legacy untyped supplier by calling it once, the value found is published right away
+     *
+     * @return the slot's publish action from then on, which does nothing if the type is not supported
+     */
+    private Runnable sniff(String key, Supplier<?> source) {
+        //the warnings are wrong, we do check the cast
+        Object sample = source.get();
+        if (sample instanceof double[]) {
+            Supplier<double[]> supplier = (Supplier<double[]>) source;
+            DoubleArrayHandle handle = LightningShuffleboard.doubleArrayHandle(tab, key);
+            handle.set((double[]) sample);
+            return () -> handle.set(supplier.get());
+        } else if (sample instanceof boolean[]) {
+            Supplier<boolean[]> supplier = (Supplier<boolean[]>) source;
+            BooleanArrayHandle handle = LightningShuffleboard.boolArrayHandle(tab, key);
+            handle.set((boolean[]) sample);
+            return () -> handle.set(supplier.get());
+        } else if (sample instanceof String[]) {
+            Supplier<String[]> supplier = (Supplier<String[]>) source;
+            StringArrayHandle handle = LightningShuffleboard.stringArrayHandle(tab, key);
+            handle.set((String[]) sample);
+            return () -> handle.set(supplier.get());
+        } else if (sample instanceof String) {
+            Supplier<String> supplier = (Supplier<String>) source;
+            StringHandle handle = LightningShuffleboard.stringHandle(tab, key);
+            handle.set((String) sample);
+            return () -> handle.set(supplier.get());
+        }
+
+        System.out.println(key + " is null");
+        return () -> {};
+    }
+
+    /**
+     * Slows this tab down when the main loop runs short on headroom and speeds it back up to its
+     * period when there is slack, see {@link AdaptiveRate}
+     *
+     * @param floorRate the lowest rate in Hz every value is republished at
+     * @return this, for chaining
+     */
+    public LightningShuffleboardPeriodic setAdaptiveRate(double floorRate) {
+        return setAdaptiveRate(new AdaptiveRate(period, floorRate));
+    }
+
+    /**
+     * Uses a rate controller to pick the period, e.g. one with higher thresholds for low priority tabs
+     *
+     * @param controller the rate controller, null for the fixed period
+     * @return this, for chaining
+     */
+    public LightningShuffleboardPeriodic setAdaptiveRate(AdaptiveRate controller) {
+        rate = controller;
+        currentPeriod = controller == null ? period : controller.getPeriod();
+        return this;
+    }
+
+    /**
+     * @return the period every value is currently republished at, in seconds
+     */
+    public double getPeriod() {
+        return currentPeriod;
+    }
+
+    /**
+     * Sets how long each {@link #loop()} may spend publishing. At least one owed value is always
+     * published per loop, so a slow supplier can't stall the tab.
+     *
+     * @param seconds the time budget per loop
+     */
+    public void setTickBudget(double seconds) {
+        tickBudget = seconds;
+    }
+
+    /**
+     * @return true if the tick budget has run out before the owed values for a whole period,
+     * so the tab can't hold its period
+     */
+    public boolean isFallingBehind() {
+        return fallingBehind;
+    }
+
     //call this in your periodic
     public void loop() {
-        double currentTime = Timer.getFPGATimestamp();
-
-        if (currentTime-lastTime > loopTime / length) {
-            switch (type[index]) {
-                case DOUBLE:
-                    NetworkTableInstance.getDefault().getTable("Shuffleboard").getSubTable(tab).getEntry(values[index].getFirst()).setDouble(((DoubleSupplier) (values[index].getSecond())).getAsDouble());
-                    break;
-                case BOOLEAN:
-                    NetworkTableInstance.getDefault().getTable("Shuffleboard").getSubTable(tab).getEntry(values[index].getFirst()).setBoolean(((BooleanSupplier) values[index].getSecond()).getAsBoolean());
-                    break;
-                case STRING:
-                    NetworkTableInstance.getDefault().getTable("Shuffleboard").getSubTable(tab).getEntry(values[index].getFirst()).setString(((Supplier<String>) values[index].getSecond()).get());
-                    break;
-                case DOUBLE_ARRAY:
-                    NetworkTableInstance.getDefault().getTable("Shuffleboard").getSubTable(tab).getEntry(values[index].getFirst()).setDoubleArray(((Supplier<double[]>) values[index].getSecond()).get());
-                    break;
-                case BOOLEAN_ARRAY:
-                    NetworkTableInstance.getDefault().getTable("Shuffleboard").getSubTable(tab).getEntry(values[index].getFirst()).setBooleanArray(((Supplier<boolean[]>) values[index].getSecond()).get());
-                    break;
-                case STRING_ARRAY:
-                    NetworkTableInstance.getDefault().getTable("Shuffleboard").getSubTable(tab).getEntry(values[index].getFirst()).setStringArray(((Supplier<String[]>) values[index].getSecond()).get());
-                    break;
-                case NULL:
-                    System.out.println(values[index].getFirst() + " is null");
-                break;
-            }
+        if (slots.length == 0) {
+            return;
+        }
+
+        /* logic breakdown:
+         * every value is owed once per (possibly adapted) period, so time since the last loop adds length / period values
+         * publish owed values in order until they are paid or the tick budget runs out
+         * the debt is capped at one full round so a stall doesn't cause a burst afterwards
+         */
+        long currentTime = RobotController.getFPGATime();
+        if (rate != null) {
+            currentPeriod = rate.update(LoopTimer.getHeadroom(), currentTime);
+        }
+        owed = Math.min(owed + (currentTime - lastTime) / 1e6 * slots.length / currentPeriod, slots.length);
+        lastTime = currentTime;
 
-            lastTime = currentTime;
+        long deadline = currentTime + (long) (tickBudget * 1e6);
+        while (owed >= 1) {
+            slots[index].run();
+            owed--;
             index++;
-            if (index == length) {
+            if (index == slots.length) {
                 index = 0;
             }
+
+            if (RobotController.getFPGATime() >= deadline) {
+                break;
+            }
+        }
+
+        if (owed < 1) {
+            behindSince = 0;
+            fallingBehind = false;
+        } else if (behindSince == 0) {
+            behindSince = currentTime;
+        } else if ((currentTime - behindSince) / 1e6 > currentPeriod) {
+            fallingBehind = true;
+        }
+
+        if (fallingBehind && !warned) {
+            warned = true;
+            DriverStation.reportWarning(tab + " can't publish " + slots.length + " values every " + currentPeriod + "s within " + tickBudget * 1000 + "ms per loop", false);
         }
     }
 }
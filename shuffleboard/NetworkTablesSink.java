@@ -0,0 +1,84 @@
+package frc.thunder.shuffleboard;
+
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableEntry;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.util.function.BooleanConsumer;
+import edu.wpi.first.util.struct.Struct;
+
+/**
+ * Publishes entries to {@code Shuffleboard/<tab>/<key>} in an NT instance, the default sink
+ */
+public class NetworkTablesSink implements TelemetrySink {
+    private final NetworkTableInstance instance;
+
+    /**
+     * Publishes to the default NT instance, entries are also added to the Shuffleboard layout
+     */
+    public NetworkTablesSink() {
+        this(NetworkTableInstance.getDefault());
+    }
+
+    /**
+     * @param instance the NT instance to publish to, only the default instance gets a Shuffleboard layout
+     */
+    public NetworkTablesSink(NetworkTableInstance instance) {
+        this.instance = instance;
+    }
+
+    private NetworkTable getTable(String tabName) {
+        return instance.getTable("Shuffleboard").getSubTable(tabName);
+    }
+
+    private NetworkTableEntry getEntry(String tabName, String key) {
+        return getTable(tabName).getEntry(key);
+    }
+
+    @Override
+    public DoubleConsumer doubleChannel(String tabName, String key) {
+        return getEntry(tabName, key)::setDouble;
+    }
+
+    @Override
+    public BooleanConsumer booleanChannel(String tabName, String key) {
+        return getEntry(tabName, key)::setBoolean;
+    }
+
+    @Override
+    public Consumer<String> stringChannel(String tabName, String key) {
+        return getEntry(tabName, key)::setString;
+    }
+
+    @Override
+    public Consumer<double[]> doubleArrayChannel(String tabName, String key) {
+        return getEntry(tabName, key)::setDoubleArray;
+    }
+
+    @Override
+    public Consumer<boolean[]> booleanArrayChannel(String tabName, String key) {
+        return getEntry(tabName, key)::setBooleanArray;
+    }
+
+    @Override
+    public Consumer<String[]> stringArrayChannel(String tabName, String key) {
+        return getEntry(tabName, key)::setStringArray;
+    }
+
+    @Override
+    public <T> Consumer<T> structChannel(String tabName, String key, Struct<T> struct) {
+        return getTable(tabName).getStructTopic(key, struct).publish();
+    }
+
+    @Override
+    public <T> Consumer<T[]> structArrayChannel(String tabName, String key, Struct<T> struct) {
+        return getTable(tabName).getStructArrayTopic(key, struct).publish();
+    }
+
+    @Override
+    public boolean isShuffleboard() {
+        return instance == NetworkTableInstance.getDefault();
+    }
+}
@@ -0,0 +1,120 @@
+package frc.thunder.shuffleboard;
+
+/**
+ * Limits how often a numeric entry is republished, to keep noisy sensors from flooding NT.
+ * 
+ * A change is only published once it moves further than the deadband from the last published
+ * value, and no more often than the max rate. A heartbeat republishes the current value every so
+ * often even if it has not moved past the deadband, so small drifts still reach the dashboard.
+ * 
+ * e.g. {@code PublishPolicy.deadband(0.01).withMaxRate(10).withHeartbeat(1)}
+ */
+public class PublishPolicy {
+    /** Publish every change, the default */
+    public static final PublishPolicy ALWAYS = new PublishPolicy(0, 0, 0, 0);
+
+    private final double absoluteDeadband;
+    private final double relativeDeadband;
+    private final long minPeriodMicros;
+    private final long heartbeatMicros;
+
+    private PublishPolicy(double absoluteDeadband, double relativeDeadband, long minPeriodMicros, long heartbeatMicros) {
+        this.absoluteDeadband = absoluteDeadband;
+        this.relativeDeadband = relativeDeadband;
+        this.minPeriodMicros = minPeriodMicros;
+        this.heartbeatMicros = heartbeatMicros;
+    }
+
+    /**
+     * @param absolute the smallest change worth publishing
+     * @return a policy with only an absolute deadband
+     */
+    public static PublishPolicy deadband(double absolute) {
+        return ALWAYS.withDeadband(absolute);
+    }
+
+    /**
+     * @param fraction the smallest change worth publishing, as a fraction of the last published value
+     * @return a policy with only a relative deadband
+     */
+    public static PublishPolicy relativeDeadband(double fraction) {
+        return ALWAYS.withRelativeDeadband(fraction);
+    }
+
+    /**
+     * @param hz the most publishes per second
+     * @return a policy with only a max rate
+     */
+    public static PublishPolicy maxRate(double hz) {
+        return ALWAYS.withMaxRate(hz);
+    }
+
+    /**
+     * @param absolute the smallest change worth publishing
+     * @return a copy of this policy with the absolute deadband
+     */
+    public PublishPolicy withDeadband(double absolute) {
+        return new PublishPolicy(absolute, relativeDeadband, minPeriodMicros, heartbeatMicros);
+    }
+
+    /**
+     * @param fraction the smallest change worth publishing, as a fraction of the last published value
+     * @return a copy of this policy with the relative deadband
+     */
+    public PublishPolicy withRelativeDeadband(double fraction) {
+        return new PublishPolicy(absoluteDeadband, fraction, minPeriodMicros, heartbeatMicros);
+    }
+
+    /**
+     * @param hz the most publishes per second
+     * @return a copy of this policy with the max rate
+     */
+    public PublishPolicy withMaxRate(double hz) {
+        return new PublishPolicy(absoluteDeadband, relativeDeadband, Math.round(1e6 / hz), heartbeatMicros);
+    }
+
+    /**
+     * @param seconds republish the current value at least this often
+     * @return a copy of this policy with the heartbeat
+     */
+    public PublishPolicy withHeartbeat(double seconds) {
+        return new PublishPolicy(absoluteDeadband, relativeDeadband, minPeriodMicros, Math.round(seconds * 1e6));
+    }
+
+    /**
+     * @return true if the policy needs the current time to decide
+     */
+    boolean isTimed() {
+        return minPeriodMicros > 0 || heartbeatMicros > 0;
+    }
+
+    /**
+     * @param published the last published value
+     * @param value the new value
+     * @return true if the new value moved past the deadband
+     */
+    boolean exceedsDeadband(double published, double value) {
+        double change = Math.abs(value - published);
+        if (Double.isNaN(change)) {
+            // NaN on either side always counts as a change
+            return true;
+        }
+        return change > absoluteDeadband && change > Math.abs(published) * relativeDeadband;
+    }
+
+    /**
+     * @param sinceLastPublish microseconds since the last publish
+     * @return true if the max rate allows another publish
+     */
+    boolean rateAllows(long sinceLastPublish) {
+        return sinceLastPublish >= minPeriodMicros;
+    }
+
+    /**
+     * @param sinceLastPublish microseconds since the last publish
+     * @return true if the heartbeat is due
+     */
+    boolean heartbeatDue(long sinceLastPublish) {
+        return heartbeatMicros > 0 && sinceLastPublish >= heartbeatMicros;
+    }
+}
@@ -0,0 +1,50 @@
+package frc.thunder.shuffleboard;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Pre-resolved string entry, see {@link LightningShuffleboard#stringHandle(String, String)}
+ */
+public class StringHandle extends TelemetryHandle {
+    private final Consumer<String> channel;
+    private final AtomicReference<String> last;
+
+    StringHandle(String tabName, String key, Consumer<String> channel, String initialValue) {
+        super(tabName, key);
+        this.channel = channel;
+        this.last = new AtomicReference<>(initialValue);
+    }
+
+    /**
+     * Publishes the value if it changed since the last publish
+     * 
+     * @param value the new value
+     */
+    public void set(String value) {
+        if (!Objects.equals(last.getAndSet(value), value)) {
+            publish();
+        }
+    }
+
+    @Override
+    boolean writeCurrent() {
+        String value = last.get();
+        channel.accept(value);
+        return last.get() == value;
+    }
+
+    @Override
+    int estimateBytes() {
+        String value = last.get();
+        return value == null ? 0 : value.length();
+    }
+
+    /**
+     * @return the last published value
+     */
+    public String get() {
+        return last.get();
+    }
+}
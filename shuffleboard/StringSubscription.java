@@ -0,0 +1,37 @@
+package frc.thunder.shuffleboard;
+
+import java.util.Objects;
+
+import edu.wpi.first.networktables.NetworkTableValue;
+
+/**
+ * Listener-backed string entry, see {@link LightningShuffleboard#stringSubscription(String, String, String)}
+ */
+public class StringSubscription extends TelemetrySubscription {
+    private volatile String value;
+
+    StringSubscription(String tabName, String key, String initialValue) {
+        super(tabName, key);
+        this.value = initialValue;
+    }
+
+    @Override
+    void accept(NetworkTableValue networkValue) {
+        if (!networkValue.isString()) {
+            return;
+        }
+
+        String newValue = networkValue.getString();
+        if (!Objects.equals(newValue, value)) {
+            value = newValue;
+            markChanged();
+        }
+    }
+
+    /**
+     * @return the latest value received from NT
+     */
+    public String get() {
+        return value;
+    }
+}
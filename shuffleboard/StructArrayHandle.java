@@ -0,0 +1,66 @@
+package frc.thunder.shuffleboard;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import edu.wpi.first.util.struct.Struct;
+
+/**
+ * Pre-resolved struct array entry, e.g. a trail of poses for AdvantageScope.
+ * See {@link LightningShuffleboard#structArrayHandle(String, String, edu.wpi.first.util.struct.Struct)}
+ * 
+ * Changes are found by comparing contents, so callers may reuse one array and replace its elements.
+ */
+public class StructArrayHandle<T> extends TelemetryHandle {
+    private final Struct<T> struct;
+    private final Consumer<T[]> channel;
+    private T[] last;
+
+    StructArrayHandle(String tabName, String key, Struct<T> struct, Consumer<T[]> channel) {
+        super(tabName, key);
+        this.struct = struct;
+        this.channel = channel;
+    }
+
+    /**
+     * Publishes the array if its contents changed since the last publish
+     * 
+     * @param value the new value, may be a reused buffer
+     */
+    public synchronized void set(T[] value) {
+        if (Arrays.equals(value, last)) {
+            return;
+        }
+
+        if (last != null && last.length == value.length) {
+            System.arraycopy(value, 0, last, 0, value.length);
+        } else {
+            last = value.clone();
+        }
+        publish();
+    }
+
+    @Override
+    synchronized boolean writeCurrent() {
+        if (last != null) {
+            channel.accept(last);
+        }
+        return true;
+    }
+
+    @Override
+    synchronized int estimateBytes() {
+        return last == null ? 0 : last.length * struct.getSize();
+    }
+
+    /**
+     * @return a copy of the last published value, null if nothing has been published
+     */
+    public synchronized T[] get() {
+        return last == null ? null : last.clone();
+    }
+
+    Struct<T> getStruct() {
+        return struct;
+    }
+}
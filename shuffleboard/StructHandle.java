@@ -0,0 +1,59 @@
+package frc.thunder.shuffleboard;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import edu.wpi.first.util.struct.Struct;
+
+/**
+ * Pre-resolved struct entry, published as a compact binary struct that AdvantageScope can decode.
+ * See {@link LightningShuffleboard#structHandle(String, String, edu.wpi.first.util.struct.Struct)}
+ */
+public class StructHandle<T> extends TelemetryHandle {
+    private final Struct<T> struct;
+    private final Consumer<T> channel;
+    private final AtomicReference<T> last = new AtomicReference<>();
+
+    StructHandle(String tabName, String key, Struct<T> struct, Consumer<T> channel) {
+        super(tabName, key);
+        this.struct = struct;
+        this.channel = channel;
+    }
+
+    /**
+     * Publishes the value if it changed since the last publish
+     * 
+     * @param value the new value, should be immutable like the WPILib geometry classes
+     */
+    public void set(T value) {
+        if (!Objects.equals(last.getAndSet(value), value)) {
+            publish();
+        }
+    }
+
+    @Override
+    boolean writeCurrent() {
+        T value = last.get();
+        if (value != null) {
+            channel.accept(value);
+        }
+        return last.get() == value;
+    }
+
+    @Override
+    int estimateBytes() {
+        return struct.getSize();
+    }
+
+    /**
+     * @return the last published value, null if nothing has been published
+     */
+    public T get() {
+        return last.get();
+    }
+
+    Struct<T> getStruct() {
+        return struct;
+    }
+}
@@ -0,0 +1,154 @@
+package frc.thunder.shuffleboard;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.wpi.first.networktables.DoubleArrayPublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.StringArrayPublisher;
+import edu.wpi.first.wpilibj.RobotController;
+
+/**
+ * Optional accounting of what {@link LightningShuffleboard} telemetry costs, per key and per tab.
+ *
+ * While enabled, every write made through a handle (which includes the value setters) counts
+ * one publish, its estimated payload bytes and the time spent writing it. {@link #publish()}
+ * turns the counts since the last call into rates and sends the top offenders to
+ * {@code LightningRobot/TelemetryCost}:
+ * <ul>
+ * <li>{@code keysByTime} and {@code keysByBytes}: the most expensive tab/keys as {@code "tab/key publishes/s bytes/s ms/s"}</li>
+ * <li>{@code tabs}: every tab in the same format, most time first</li>
+ * <li>{@code total}: {@code [publishes/s, bytes/s, ms/s]} over all handles</li>
+ * </ul>
+ *
+ * Supplier and Sendable entries are updated by Shuffleboard itself and are not counted.
+ */
+public final class TelemetryCost {
+    private static final int TOP = 10;
+
+    private static volatile boolean enabled = false;
+    private static long windowStart = 0;
+
+    private static StringArrayPublisher keysByTimePublisher;
+    private static StringArrayPublisher keysByBytesPublisher;
+    private static StringArrayPublisher tabsPublisher;
+    private static DoubleArrayPublisher totalPublisher;
+
+    private TelemetryCost() {}
+
+    /**
+     * Starts or stops counting, starting clears the counts of the previous window
+     *
+     * @param enable true to count publishes, bytes and time per key
+     */
+    public static synchronized void setEnabled(boolean enable) {
+        if (enable && !enabled) {
+            reset();
+        }
+        enabled = enable;
+    }
+
+    /**
+     * @return true if telemetry costs are being counted
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Clears the counts of every handle and starts a new window
+     */
+    public static synchronized void reset() {
+        for (TelemetryHandle handle : LightningShuffleboard.getHandles()) {
+            handle.publishCount.reset();
+            handle.byteCount.reset();
+            handle.nanoCount.reset();
+        }
+        windowStart = RobotController.getFPGATime();
+    }
+
+    /**
+     * Publishes the cost rates since the last call and starts a new window, does nothing while
+     * disabled. Called by LightningRobot on the low priority tier.
+     */
+    public static synchronized void publish() {
+        if (!enabled) {
+            return;
+        }
+
+        long now = RobotController.getFPGATime();
+        double window = (now - windowStart) / 1e6;
+        windowStart = now;
+        if (window <= 0) {
+            return;
+        }
+
+        List<Cost> keys = new ArrayList<>();
+        Map<String, Cost> tabs = new HashMap<>();
+        Cost total = new Cost("total");
+
+        for (TelemetryHandle handle : LightningShuffleboard.getHandles()) {
+            long publishes = handle.publishCount.sumThenReset();
+            long bytes = handle.byteCount.sumThenReset();
+            long nanos = handle.nanoCount.sumThenReset();
+            if (publishes == 0) {
+                continue;
+            }
+
+            keys.add(new Cost(handle.getTabName() + "/" + handle.getKey()).add(publishes, bytes, nanos));
+            tabs.computeIfAbsent(handle.getTabName(), Cost::new).add(publishes, bytes, nanos);
+            total.add(publishes, bytes, nanos);
+        }
+
+        if (totalPublisher == null) {
+            NetworkTable table = NetworkTableInstance.getDefault().getTable("LightningRobot/TelemetryCost");
+            keysByTimePublisher = table.getStringArrayTopic("keysByTime").publish();
+            keysByBytesPublisher = table.getStringArrayTopic("keysByBytes").publish();
+            tabsPublisher = table.getStringArrayTopic("tabs").publish();
+            totalPublisher = table.getDoubleArrayTopic("total").publish();
+        }
+
+        List<Cost> tabList = new ArrayList<>(tabs.values());
+        tabList.sort(Comparator.comparingLong((Cost cost) -> cost.nanos).reversed());
+        tabsPublisher.set(format(tabList, tabList.size(), window));
+
+        keys.sort(Comparator.comparingLong((Cost cost) -> cost.nanos).reversed());
+        keysByTimePublisher.set(format(keys, TOP, window));
+
+        keys.sort(Comparator.comparingLong((Cost cost) -> cost.bytes).reversed());
+        keysByBytesPublisher.set(format(keys, TOP, window));
+
+        totalPublisher.set(new double[] {total.publishes / window, total.bytes / window, total.nanos / 1e6 / window});
+    }
+
+    private static String[] format(List<Cost> costs, int limit, double window) {
+        String[] lines = new String[Math.min(limit, costs.size())];
+        for (int i = 0; i < lines.length; i++) {
+            Cost cost = costs.get(i);
+            lines[i] = String.format("%s %.1f/s %.0fB/s %.3fms/s", cost.name, cost.publishes / window, cost.bytes / window, cost.nanos / 1e6 / window);
+        }
+        return lines;
+    }
+
+    private static class Cost {
+        private final String name;
+        private long publishes = 0;
+        private long bytes = 0;
+        private long nanos = 0;
+
+        private Cost(String name) {
+            this.name = name;
+        }
+
+        private Cost add(long publishes, long bytes, long nanos) {
+            this.publishes += publishes;
+            this.bytes += bytes;
+            this.nanos += nanos;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package frc.thunder.shuffleboard;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A tab/key pair resolved once by {@link LightningShuffleboard}, so publishing through it
+ * needs no string building, hashing or table lookups.
+ * 
+ * Handles are thread safe, change detection is done with atomic swaps so only a thread that
+ * actually changed the value publishes.
+ */
+public abstract class TelemetryHandle {
+    protected final String tabName;
+    protected final String key;
+
+    // set while the handle is waiting for the buffered flush
+    volatile boolean dirty = false;
+
+    // set while the Shuffleboard widget is held back because the handle was created suppressed
+    volatile boolean widgetPending = false;
+
+    private volatile Verbosity verbosity = Verbosity.MATCH;
+
+    // cost accounting, only updated while TelemetryCost is enabled
+    final LongAdder publishCount = new LongAdder();
+    final LongAdder byteCount = new LongAdder();
+    final LongAdder nanoCount = new LongAdder();
+
+    TelemetryHandle(String tabName, String key) {
+        this.tabName = tabName;
+        this.key = key;
+    }
+
+    /**
+     * Publishes the handle's current value, or queues it for the end of loop
+     * {@link LightningShuffleboard#flush() flush} in buffered mode. Suppressed handles keep
+     * tracking their value and publish it once their verbosity is enabled again. Handles created
+     * while suppressed get their Shuffleboard widget on that first publish.
+     */
+    protected void publish() {
+        if (!LightningShuffleboard.isEnabled(verbosity)) {
+            return;
+        }
+
+        if (widgetPending) {
+            LightningShuffleboard.showWidget(this);
+        }
+
+        if (LightningShuffleboard.isBuffered()) {
+            dirty = true;
+        } else {
+            send();
+        }
+    }
+
+    /**
+     * Writes the handle's current value, and records its cost while {@link TelemetryCost} is enabled
+     */
+    void send() {
+        if (!TelemetryCost.isEnabled()) {
+            write();
+            return;
+        }
+
+        long start = System.nanoTime();
+        write();
+        nanoCount.add(System.nanoTime() - start);
+        publishCount.increment();
+        byteCount.add(estimateBytes());
+    }
+
+    /**
+     * Writes the handle's current value to its sinks, and writes again if another thread changed the
+     * value meanwhile, so a publisher preempted mid-write can't leave an older value behind
+     */
+    void write() {
+        while (!writeCurrent()) {
+            // the value changed during the write, the next pass writes the newer one
+        }
+    }
+
+    /**
+     * Writes the current value once. Lock-free handles re-read their value after writing, handles that
+     * hold their lock across the change check and the write always return true.
+     *
+     * @return true if the written value is still the current value
+     */
+    abstract boolean writeCurrent();
+
+    /**
+     * @return the approximate payload size of the current value in bytes, used for cost accounting
+     */
+    abstract int estimateBytes();
+
+    /**
+     * Sets the verbosity level of this entry, it is only published while the level is within
+     * the {@link LightningShuffleboard#setVerbosity(Verbosity) global threshold}
+     * 
+     * @param verbosity the verbosity level of this entry
+     */
+    public void setVerbosity(Verbosity verbosity) {
+        boolean wasEnabled = LightningShuffleboard.isEnabled(this.verbosity);
+        this.verbosity = verbosity;
+        if (!wasEnabled) {
+            publish();
+        }
+    }
+
+    /**
+     * @return the verbosity level of this entry
+     */
+    public Verbosity getVerbosity() {
+        return verbosity;
+    }
+
+    /**
+     * @return the tab this handle publishes to
+     */
+    public String getTabName() {
+        return tabName;
+    }
+
+    /**
+     * @return the name of the shuffleboard entry
+     */
+    public String getKey() {
+        return key;
+    }
+}
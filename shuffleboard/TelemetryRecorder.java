@@ -0,0 +1,162 @@
+package frc.thunder.shuffleboard;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+
+import edu.wpi.first.util.function.BooleanConsumer;
+import edu.wpi.first.util.struct.Struct;
+
+/**
+ * Keeps every value written to it in memory, for unit tests and for benchmarking telemetry
+ * without NT or a robot
+ */
+public class TelemetryRecorder implements TelemetrySink {
+    private final boolean keepHistory;
+    private final ConcurrentHashMap<String, Recording> recordings = new ConcurrentHashMap<String, Recording>();
+
+    /**
+     * Records the full history of every entry
+     */
+    public TelemetryRecorder() {
+        this(true);
+    }
+
+    /**
+     * @param keepHistory false to only keep the count and last value of each entry, so long
+     * benchmarks don't grow the heap
+     */
+    public TelemetryRecorder(boolean keepHistory) {
+        this.keepHistory = keepHistory;
+    }
+
+    /**
+     * The values written to one tab/key, arrays are copied when recorded
+     */
+    public static class Recording {
+        private final List<Object> history;
+        private long count = 0;
+        private Object last = null;
+
+        private Recording(boolean keepHistory) {
+            this.history = keepHistory ? new ArrayList<Object>() : null;
+        }
+
+        private synchronized void record(Object value) {
+            count++;
+            last = value;
+            if (history != null) {
+                history.add(value);
+            }
+        }
+
+        private synchronized void clear() {
+            count = 0;
+            last = null;
+            if (history != null) {
+                history.clear();
+            }
+        }
+
+        /**
+         * @return the number of values written
+         */
+        public synchronized long getCount() {
+            return count;
+        }
+
+        /**
+         * @return the last value written, boxed, or null if nothing has been written
+         */
+        public synchronized Object getLast() {
+            return last;
+        }
+
+        /**
+         * @return a copy of every value written in order, empty if history is not kept
+         */
+        public synchronized List<Object> getHistory() {
+            return history == null ? new ArrayList<Object>() : new ArrayList<Object>(history);
+        }
+    }
+
+    private Recording open(String tabName, String key) {
+        return recordings.computeIfAbsent(tabName + "/" + key, index -> new Recording(keepHistory));
+    }
+
+    /**
+     * @param tabName the tab of the entry
+     * @param key the name of the entry
+     * @return the recording of the entry, or null if it has no channel yet
+     */
+    public Recording get(String tabName, String key) {
+        return recordings.get(tabName + "/" + key);
+    }
+
+    /**
+     * @return every recorded {@code tab/key}
+     */
+    public Set<String> getKeys() {
+        return recordings.keySet();
+    }
+
+    /**
+     * Drops every recorded value, channels stay open
+     */
+    public void clear() {
+        for (Recording recording : recordings.values()) {
+            recording.clear();
+        }
+    }
+
+    @Override
+    public DoubleConsumer doubleChannel(String tabName, String key) {
+        Recording recording = open(tabName, key);
+        return value -> recording.record(value);
+    }
+
+    @Override
+    public BooleanConsumer booleanChannel(String tabName, String key) {
+        Recording recording = open(tabName, key);
+        return value -> recording.record(value);
+    }
+
+    @Override
+    public Consumer<String> stringChannel(String tabName, String key) {
+        Recording recording = open(tabName, key);
+        return value -> recording.record(value);
+    }
+
+    @Override
+    public Consumer<double[]> doubleArrayChannel(String tabName, String key) {
+        Recording recording = open(tabName, key);
+        return value -> recording.record(value.clone());
+    }
+
+    @Override
+    public Consumer<boolean[]> booleanArrayChannel(String tabName, String key) {
+        Recording recording = open(tabName, key);
+        return value -> recording.record(value.clone());
+    }
+
+    @Override
+    public Consumer<String[]> stringArrayChannel(String tabName, String key) {
+        Recording recording = open(tabName, key);
+        return value -> recording.record(value.clone());
+    }
+
+    @Override
+    public <T> Consumer<T> structChannel(String tabName, String key, Struct<T> struct) {
+        Recording recording = open(tabName, key);
+        return value -> recording.record(value);
+    }
+
+    @Override
+    public <T> Consumer<T[]> structArrayChannel(String tabName, String key, Struct<T> struct) {
+        Recording recording = open(tabName, key);
+        return value -> recording.record(value.clone());
+    }
+}
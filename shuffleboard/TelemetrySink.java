@@ -0,0 +1,48 @@
+package frc.thunder.shuffleboard;
+
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+
+import edu.wpi.first.util.function.BooleanConsumer;
+import edu.wpi.first.util.struct.Struct;
+
+/**
+ * A destination for {@link LightningShuffleboard} values, see {@link LightningShuffleboard#setSinks(TelemetrySink...)}
+ * 
+ * Each method opens a channel for one tab/key, which the entry's handle keeps and writes to on every
+ * publish, so channels should do their lookups up front. Arrays passed to a channel are reused by the
+ * handle and must be copied if they are kept.
+ */
+public interface TelemetrySink {
+    DoubleConsumer doubleChannel(String tabName, String key);
+
+    BooleanConsumer booleanChannel(String tabName, String key);
+
+    Consumer<String> stringChannel(String tabName, String key);
+
+    Consumer<double[]> doubleArrayChannel(String tabName, String key);
+
+    Consumer<boolean[]> booleanArrayChannel(String tabName, String key);
+
+    Consumer<String[]> stringArrayChannel(String tabName, String key);
+
+    <T> Consumer<T> structChannel(String tabName, String key, Struct<T> struct);
+
+    <T> Consumer<T[]> structArrayChannel(String tabName, String key, Struct<T> struct);
+
+    /**
+     * Called by {@link LightningShuffleboard#flush()} at the end of every loop, for sinks that batch writes
+     * 
+     * @return true if anything was written
+     */
+    default boolean flush() {
+        return false;
+    }
+
+    /**
+     * @return true if entries written to this sink should also be added to the Shuffleboard layout
+     */
+    default boolean isShuffleboard() {
+        return false;
+    }
+}
@@ -0,0 +1,68 @@
+package frc.thunder.shuffleboard;
+
+import java.util.EnumSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import edu.wpi.first.networktables.NetworkTableEntry;
+import edu.wpi.first.networktables.NetworkTableEvent;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.NetworkTableValue;
+
+/**
+ * A tab/key pair subscribed once by {@link LightningShuffleboard}. An NT listener pushes new
+ * values into a local slot, so reading or polling for changes is a field read instead of an
+ * NT lookup.
+ * 
+ * Subscriptions are shared by every caller of the same tab/key, including the change flag.
+ */
+public abstract class TelemetrySubscription {
+    protected final String tabName;
+    protected final String key;
+
+    private final AtomicBoolean changed = new AtomicBoolean(false);
+
+    TelemetrySubscription(String tabName, String key) {
+        this.tabName = tabName;
+        this.key = key;
+    }
+
+    /**
+     * Starts listening to the entry, the current value is pushed immediately
+     */
+    void listen(NetworkTableEntry entry) {
+        NetworkTableInstance.getDefault().addListener(entry, EnumSet.of(NetworkTableEvent.Kind.kValueAll, NetworkTableEvent.Kind.kImmediate), event -> accept(event.valueData.value));
+    }
+
+    /**
+     * Stores a value received from NT, called on the NT listener thread
+     */
+    abstract void accept(NetworkTableValue value);
+
+    /**
+     * Marks the value as changed, subclasses call this only when the stored value differs
+     */
+    protected void markChanged() {
+        changed.set(true);
+    }
+
+    /**
+     * @return true if the value changed since the last call, costs a volatile read when it hasn't
+     */
+    public boolean hasChanged() {
+        return changed.get() && changed.getAndSet(false);
+    }
+
+    /**
+     * @return the tab this subscription reads from
+     */
+    public String getTabName() {
+        return tabName;
+    }
+
+    /**
+     * @return the name of the shuffleboard entry
+     */
+    public String getKey() {
+        return key;
+    }
+}
@@ -0,0 +1,22 @@
+package frc.thunder.shuffleboard;
+
+/**
+ * How important a telemetry entry is, entries above the
+ * {@link LightningShuffleboard#setVerbosity(Verbosity) global threshold} are not published
+ */
+public enum Verbosity {
+    /** always published, e.g. values the drive team relies on */
+    CRITICAL,
+    /** published in matches, the default for entries without a level */
+    MATCH,
+    /** only published while debugging */
+    DEBUG;
+
+    /**
+     * @param threshold the most verbose level that is published
+     * @return true if entries at this level are published under the threshold
+     */
+    public boolean isWithin(Verbosity threshold) {
+        return ordinal() <= threshold.ordinal();
+    }
+}
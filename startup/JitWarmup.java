@@ -0,0 +1,127 @@
+package frc.thunder.startup;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.wpi.first.wpilibj2.command.InstantCommand;
+import frc.thunder.command.TimedCommand;
+import frc.thunder.filter.JoystickFilter;
+import frc.thunder.filter.KalmanFilter;
+import frc.thunder.filter.MovingAverageFilter;
+import frc.thunder.math.InterpolationMap;
+import frc.thunder.math.LightningMath;
+import frc.thunder.util.PoseConverter;
+
+/**
+ * Exercises registered hot paths while the robot is settling or disabled, so they are JIT compiled
+ * before autonomous starts instead of running interpreted in the first auto cycles.
+ * 
+ * USAGE: register hot paths from your container, for example
+ * {@code JitWarmup.register("shooterMap", 20000, () -> JitWarmup.consume(shooterMap.get(3.2)))},
+ * and enable warm-up with {@link frc.thunder.LightningRobot#setJitWarmup(boolean)}. Hot paths must
+ * not touch hardware or schedule commands; constructing commands is fine.
+ */
+public class JitWarmup {
+    /** Enough calls for a method to reach the optimizing compiler */
+    public static final int DEFAULT_ITERATIONS = 20000;
+
+    private static final List<HotPath> hotPaths = new ArrayList<>();
+    private static int next = 0;
+    private static volatile double sink;
+
+    private static class HotPath {
+        final String name;
+        final Runnable action;
+        int remaining;
+
+        HotPath(String name, int iterations, Runnable action) {
+            this.name = name;
+            this.remaining = iterations;
+            this.action = action;
+        }
+    }
+
+    /**
+     * Registers a hot path to warm up. Hot paths registered after warm-up has finished run in the
+     * next window the robot is disabled.
+     * 
+     * @param name name of the hot path, used if it throws
+     * @param iterations how many times to run it
+     * @param action a representative call of the hot path
+     */
+    public static synchronized void register(String name, int iterations, Runnable action) {
+        hotPaths.add(new HotPath(name, iterations, action));
+    }
+
+    /**
+     * Registers the thunder library's own hot paths: filters, {@link InterpolationMap#get(double)},
+     * pose conversion, angle math and command construction
+     */
+    public static void registerDefaults() {
+        MovingAverageFilter movingAverage = new MovingAverageFilter(10);
+        KalmanFilter kalman = new KalmanFilter();
+        JoystickFilter joystick = new JoystickFilter(0.1, 0, 1, JoystickFilter.Mode.SQUARED);
+        InterpolationMap map = new InterpolationMap(0, 0, 1, 1, 2, 4, 3, 9);
+        double[] pose = { 1, 2, 0, 0, 0, 45 };
+
+        register("MovingAverageFilter", DEFAULT_ITERATIONS, () -> consume(movingAverage.filter(Math.random())));
+        register("KalmanFilter", DEFAULT_ITERATIONS, () -> consume(kalman.filter(Math.random())));
+        register("JoystickFilter", DEFAULT_ITERATIONS, () -> consume(joystick.filter(Math.random() * 2 - 1)));
+        register("InterpolationMap", DEFAULT_ITERATIONS, () -> consume(map.get(Math.random() * 3)));
+        register("PoseConverter", DEFAULT_ITERATIONS, () -> consume(PoseConverter.toPose3d(pose).getX()));
+        register("LightningMath", DEFAULT_ITERATIONS, () -> consume(LightningMath.angleModulus(Math.random() * 20)));
+        // commands built in button bindings and autos, including a composition, never scheduled
+        register("CommandConstruction", DEFAULT_ITERATIONS, () -> consume(new TimedCommand(new InstantCommand(() -> {}), 1).until(() -> false).hashCode()));
+    }
+
+    /**
+     * Runs hot paths round-robin until the budget is used up or every hot path is done
+     * 
+     * @param budget time to spend in seconds
+     * @return true once every hot path has run all of its iterations
+     */
+    public static synchronized boolean run(double budget) {
+        long deadline = System.nanoTime() + (long) (budget * 1e9);
+
+        while (!hotPaths.isEmpty() && System.nanoTime() < deadline) {
+            if (next >= hotPaths.size()) {
+                next = 0;
+            }
+
+            HotPath hotPath = hotPaths.get(next);
+            try {
+                // batches keep the clock reads out of the way
+                for (int i = 0; i < 100 && hotPath.remaining > 0; i++, hotPath.remaining--) {
+                    hotPath.action.run();
+                }
+            } catch (Exception e) {
+                System.err.println("JIT warm-up of " + hotPath.name + " failed: " + e);
+                hotPath.remaining = 0;
+            }
+
+            if (hotPath.remaining <= 0) {
+                hotPaths.remove(next);
+            } else {
+                next++;
+            }
+        }
+
+        return hotPaths.isEmpty();
+    }
+
+    /**
+     * @return true once every registered hot path has been warmed up
+     */
+    public static synchronized boolean isComplete() {
+        return hotPaths.isEmpty();
+    }
+
+    /**
+     * Keeps a result alive so the JIT can't optimize the hot path away
+     * 
+     * @param value the result of the hot path
+     */
+    public static void consume(double value) {
+        sink = value;
+    }
+}
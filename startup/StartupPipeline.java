@@ -0,0 +1,163 @@
+package frc.thunder.startup;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import edu.wpi.first.wpilibj.DriverStation;
+
+/**
+ * Runs startup steps in parallel where their declared dependencies allow and records a
+ * {@link StartupTimeline}.
+ * 
+ * Steps added with {@link #add(String, Runnable, String...)} run on a bounded pool, steps added
+ * with {@link #addOnMainThread(String, Runnable, String...)} run on the thread calling
+ * {@link #run(int)} in the order they were added (use this for anything that is not thread safe,
+ * like Shuffleboard layout or command scheduling). Dependencies must be added before the steps
+ * that depend on them. If a step fails, the steps that depend on it are skipped.
+ */
+public class StartupPipeline {
+    private final String name;
+    private final Map<String, Step> steps = new LinkedHashMap<>();
+    private final StartupTimeline timeline;
+
+    private static class Step {
+        final String name;
+        final Runnable action;
+        final String[] dependencies;
+        final boolean mainThread;
+        CompletableFuture<Void> future;
+
+        Step(String name, Runnable action, String[] dependencies, boolean mainThread) {
+            this.name = name;
+            this.action = action;
+            this.dependencies = dependencies;
+            this.mainThread = mainThread;
+        }
+    }
+
+    /**
+     * @param name the name of the pipeline, used for thread names and the timeline
+     */
+    public StartupPipeline(String name) {
+        this.name = name;
+        this.timeline = new StartupTimeline(name);
+    }
+
+    /**
+     * Adds a step that runs on the startup pool once its dependencies finish
+     * 
+     * @param name unique name of the step
+     * @param action the work to run, must be thread safe
+     * @param dependencies names of steps that must finish first
+     * @return this pipeline, for chaining
+     */
+    public StartupPipeline add(String name, Runnable action, String... dependencies) {
+        return add(new Step(name, action, dependencies, false));
+    }
+
+    /**
+     * Adds a step that runs on the thread calling {@link #run(int)} once its dependencies finish
+     * 
+     * @param name unique name of the step
+     * @param action the work to run
+     * @param dependencies names of steps that must finish first
+     * @return this pipeline, for chaining
+     */
+    public StartupPipeline addOnMainThread(String name, Runnable action, String... dependencies) {
+        return add(new Step(name, action, dependencies, true));
+    }
+
+    private StartupPipeline add(Step step) {
+        if (steps.containsKey(step.name)) {
+            throw new IllegalArgumentException("Startup step " + step.name + " already exists");
+        }
+        for (String dependency : step.dependencies) {
+            if (!steps.containsKey(dependency)) {
+                throw new IllegalArgumentException("Startup step " + step.name + " depends on unknown step " + dependency);
+            }
+        }
+        steps.put(step.name, step);
+        return this;
+    }
+
+    /**
+     * Runs every step and blocks until they have all finished or been skipped
+     * 
+     * @param threads the size of the startup pool
+     * @return true if every step succeeded
+     */
+    public boolean run(int threads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        List<Step> mainThreadSteps = new ArrayList<>();
+        for (Step step : steps.values()) {
+            if (step.mainThread) {
+                step.future = new CompletableFuture<>();
+                mainThreadSteps.add(step);
+            } else {
+                step.future = dependencies(step).thenRunAsync(() -> timeline.time(step.name, step.action), pool);
+            }
+            futures.add(step.future);
+        }
+
+        // steps were added after their dependencies, so running these in order can't deadlock
+        for (Step step : mainThreadSteps) {
+            try {
+                dependencies(step).join();
+                timeline.time(step.name, step.action);
+                step.future.complete(null);
+            } catch (RuntimeException e) {
+                step.future.completeExceptionally(e);
+            }
+        }
+
+        boolean success = true;
+        for (Step step : steps.values()) {
+            try {
+                step.future.join();
+            } catch (CompletionException e) {
+                success = false;
+                Throwable cause = rootCause(e);
+                DriverStation.reportError("Startup step " + step.name + " did not complete: " + cause, cause.getStackTrace());
+            }
+        }
+
+        pool.shutdown();
+        return success;
+    }
+
+    /**
+     * @return the timeline of the last {@link #run(int)}
+     */
+    public StartupTimeline getTimeline() {
+        return timeline;
+    }
+
+    private CompletableFuture<Void> dependencies(Step step) {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[step.dependencies.length];
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = steps.get(step.dependencies[i]).future;
+        }
+        return CompletableFuture.allOf(futures);
+    }
+
+    private static Throwable rootCause(Throwable throwable) {
+        while (throwable instanceof CompletionException && throwable.getCause() != null) {
+            throwable = throwable.getCause();
+        }
+        return throwable;
+    }
+}
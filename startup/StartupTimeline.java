@@ -0,0 +1,126 @@
+package frc.thunder.startup;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.wpi.first.util.datalog.StringArrayLogEntry;
+import edu.wpi.first.wpilibj.DataLogManager;
+
+/**
+ * Records when each startup step ran, on which thread, and whether it failed.
+ * 
+ * {@link #report()} prints one line per step sorted by start time, for example
+ * {@code "   0.0ms -  212.4ms  dataLog [StartupPipeline-1]"}.
+ */
+public class StartupTimeline {
+    private final String name;
+    private final long start = System.nanoTime();
+    private final List<Entry> entries = new ArrayList<>();
+
+    private static class Entry {
+        final String step;
+        final String thread;
+        final double start;
+        final double end;
+        final boolean failed;
+
+        Entry(String step, String thread, double start, double end, boolean failed) {
+            this.step = step;
+            this.thread = thread;
+            this.start = start;
+            this.end = end;
+            this.failed = failed;
+        }
+    }
+
+    /**
+     * @param name the name of the timeline, used in the report and DataLog
+     */
+    public StartupTimeline(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Runs a step on the current thread and records it
+     * 
+     * @param step the name of the step
+     * @param action the work to run
+     * @throws RuntimeException rethrows anything thrown by the step after recording it
+     */
+    public void time(String step, Runnable action) {
+        long stepStart = System.nanoTime();
+        boolean failed = true;
+        try {
+            action.run();
+            failed = false;
+        } finally {
+            record(step, stepStart, System.nanoTime(), failed);
+        }
+    }
+
+    /**
+     * Records a step that was timed elsewhere
+     * 
+     * @param step the name of the step
+     * @param stepStart the start of the step from {@link System#nanoTime()}
+     * @param stepEnd the end of the step from {@link System#nanoTime()}
+     * @param failed true if the step threw
+     */
+    public synchronized void record(String step, long stepStart, long stepEnd, boolean failed) {
+        entries.add(new Entry(step, Thread.currentThread().getName(), (stepStart - start) / 1e6, (stepEnd - start) / 1e6, failed));
+    }
+
+    /**
+     * @return the time from the creation of this timeline to the end of the last step in seconds
+     */
+    public synchronized double getTotalTime() {
+        double end = 0;
+        for (Entry entry : entries) {
+            end = Math.max(end, entry.end);
+        }
+        return end / 1000;
+    }
+
+    /**
+     * @return one line per step, sorted by start time
+     */
+    public synchronized String[] report() {
+        List<Entry> sorted = new ArrayList<>(entries);
+        sorted.sort((a, b) -> Double.compare(a.start, b.start));
+
+        String[] lines = new String[sorted.size() + 1];
+        lines[0] = String.format("%s: %d steps in %.1fms", name, sorted.size(), getTotalTime() * 1000);
+        for (int i = 0; i < sorted.size(); i++) {
+            Entry entry = sorted.get(i);
+            lines[i + 1] = String.format("%7.1fms - %7.1fms  %s [%s]%s", entry.start, entry.end, entry.step,
+                    entry.thread, entry.failed ? " FAILED" : "");
+        }
+        return lines;
+    }
+
+    /**
+     * Prints the report to the console
+     */
+    public void print() {
+        for (String line : report()) {
+            System.out.println(line);
+        }
+    }
+
+    /**
+     * Writes the report to DataLog under {@code /LightningRobot/Startup/<name>}
+     * 
+     * @implNote DataLogManager must already be started, or this will start it with the default log directory
+     */
+    public void writeToDataLog() {
+        new StringArrayLogEntry(DataLogManager.getLog(), "/LightningRobot/Startup/" + name).append(report());
+    }
+
+    /**
+     * Prints the report and writes it to DataLog
+     */
+    public void log() {
+        print();
+        writeToDataLog();
+    }
+}
@@ -0,0 +1,77 @@
+package frc.thunder.startup;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Builds declared subsystems concurrently where their dependencies allow, on top of a {@link StartupPipeline}.
+ * 
+ * Each subsystem is split into a prepare step, which runs on the pool and should hold the slow work
+ * (motor config applies, camera handshakes), and a finish step, which runs on the main thread in
+ * declaration order. Anything extending {@code SubsystemBase} must be constructed in the finish step,
+ * because its constructor registers with the (not thread safe) {@code CommandScheduler}.
+ */
+public class SubsystemGraph {
+    private final StartupPipeline pipeline = new StartupPipeline("subsystems");
+    private int declared = 0;
+
+    /**
+     * Declares a subsystem with a concurrent prepare step and a main thread finish step
+     * 
+     * @param name unique name of the subsystem
+     * @param prepare slow, thread safe setup run on the pool, e.g. building and configuring motors
+     * @param finish builds the subsystem from the prepared value on the main thread
+     * @param dependencies names of subsystems that must be built before this one is prepared
+     * @return a handle to the subsystem, usable once {@link #build(int)} returns
+     */
+    public <P, T> SubsystemHandle<T> declare(String name, Supplier<P> prepare, Function<P, T> finish, String... dependencies) {
+        SubsystemHandle<T> handle = new SubsystemHandle<>(name);
+        AtomicReference<P> prepared = new AtomicReference<>();
+
+        pipeline.add(name + ".prepare", () -> prepared.set(prepare.get()), dependencies);
+        pipeline.addOnMainThread(name, () -> handle.set(finish.apply(prepared.get())), name + ".prepare");
+        declared++;
+        return handle;
+    }
+
+    /**
+     * Declares a subsystem built entirely on the pool. Only use this for objects that do not register
+     * with the {@code CommandScheduler}, i.e. not {@code SubsystemBase}.
+     * 
+     * @param name unique name of the subsystem
+     * @param factory thread safe constructor
+     * @param dependencies names of subsystems that must be built before this one
+     * @return a handle to the subsystem, usable once {@link #build(int)} returns
+     */
+    public <T> SubsystemHandle<T> declare(String name, Supplier<T> factory, String... dependencies) {
+        return declare(name, factory, Function.identity(), dependencies);
+    }
+
+    /**
+     * @return true if any subsystems were declared
+     */
+    public boolean isEmpty() {
+        return declared == 0;
+    }
+
+    /**
+     * Builds every declared subsystem and prints the construction timeline. The container is built
+     * before DataLog starts, so {@link frc.thunder.LightningRobot} writes the timeline to DataLog later.
+     * 
+     * @param threads the size of the pool for prepare steps
+     * @return true if every subsystem was built
+     */
+    public boolean build(int threads) {
+        boolean success = pipeline.run(threads);
+        pipeline.getTimeline().print();
+        return success;
+    }
+
+    /**
+     * @return the construction timeline, with a ".prepare" and a finish entry per subsystem
+     */
+    public StartupTimeline getTimeline() {
+        return pipeline.getTimeline();
+    }
+}
@@ -0,0 +1,44 @@
+package frc.thunder.startup;
+
+import java.util.function.Supplier;
+
+/**
+ * A subsystem declared with {@link frc.thunder.LightningContainer#declareSubsystem}, available once the
+ * container has built its subsystems.
+ */
+public class SubsystemHandle<T> implements Supplier<T> {
+    private final String name;
+    private volatile T value;
+
+    SubsystemHandle(String name) {
+        this.name = name;
+    }
+
+    void set(T value) {
+        this.value = value;
+    }
+
+    /**
+     * @return the built subsystem
+     * @throws IllegalStateException if the subsystem has not been built, or failed to build
+     */
+    @Override
+    public T get() {
+        T built = value;
+        if (built == null) {
+            throw new IllegalStateException("Subsystem " + name + " has not been built");
+        }
+        return built;
+    }
+
+    /**
+     * @return true if the subsystem has been built
+     */
+    public boolean isBuilt() {
+        return value != null;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
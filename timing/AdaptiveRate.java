@@ -0,0 +1,95 @@
+package frc.thunder.timing;
+
+import edu.wpi.first.wpilibj.RobotController;
+
+/**
+ * Picks a publish period for a periodic group from the main loop's {@link LoopTimer#getHeadroom() headroom}.
+ * 
+ * The period doubles when headroom drops below {@code slowBelow} and halves when it rises above
+ * {@code speedUpAbove}, staying between the group's base period and the period of its floor rate.
+ * Between the two thresholds the period is held, and it changes at most once per second, so the
+ * rate doesn't flap around a single threshold. Lower priority groups should use higher thresholds
+ * so they back off first.
+ */
+public class AdaptiveRate {
+    private static final double DEFAULT_SLOW_BELOW = 0.25;
+    private static final double DEFAULT_SPEED_UP_ABOVE = 0.4;
+    private static final long ADJUST_INTERVAL = 1000000;
+
+    private final double basePeriod;
+    private final double maxPeriod;
+    private final double slowBelow;
+    private final double speedUpAbove;
+
+    private double period;
+    private long lastAdjust = 0;
+
+    /**
+     * Backs off below 25% headroom and speeds up above 40%
+     * 
+     * @param basePeriod the period in seconds while there is slack
+     * @param floorRate the lowest rate in Hz the group is slowed to
+     */
+    public AdaptiveRate(double basePeriod, double floorRate) {
+        this(basePeriod, floorRate, DEFAULT_SLOW_BELOW, DEFAULT_SPEED_UP_ABOVE);
+    }
+
+    /**
+     * @param basePeriod the period in seconds while there is slack
+     * @param floorRate the lowest rate in Hz the group is slowed to, must be positive
+     * @param slowBelow the headroom fraction below which the group slows down
+     * @param speedUpAbove the headroom fraction above which the group speeds up, must be above slowBelow
+     */
+    public AdaptiveRate(double basePeriod, double floorRate, double slowBelow, double speedUpAbove) {
+        if (basePeriod <= 0 || floorRate <= 0) {
+            throw new IllegalArgumentException("basePeriod and floorRate must be positive");
+        }
+        if (speedUpAbove <= slowBelow) {
+            throw new IllegalArgumentException("speedUpAbove must be greater than slowBelow");
+        }
+
+        this.basePeriod = basePeriod;
+        this.maxPeriod = Math.max(basePeriod, 1 / floorRate);
+        this.slowBelow = slowBelow;
+        this.speedUpAbove = speedUpAbove;
+        this.period = basePeriod;
+    }
+
+    /**
+     * Adjusts the period for the current headroom
+     * 
+     * @return the period to publish at, in seconds
+     */
+    public double update() {
+        return update(LoopTimer.getHeadroom(), RobotController.getFPGATime());
+    }
+
+    /**
+     * Adjusts the period for a headroom measurement
+     * 
+     * @param headroom the fraction of the loop period left unused
+     * @param now the current FPGA time in microseconds
+     * @return the period to publish at, in seconds
+     */
+    public double update(double headroom, long now) {
+        if (now - lastAdjust < ADJUST_INTERVAL) {
+            return period;
+        }
+
+        if (headroom < slowBelow && period < maxPeriod) {
+            period = Math.min(period * 2, maxPeriod);
+            lastAdjust = now;
+        } else if (headroom > speedUpAbove && period > basePeriod) {
+            period = Math.max(period / 2, basePeriod);
+            lastAdjust = now;
+        }
+        return period;
+    }
+
+    /**
+     * @return the current period in seconds
+     */
+    public double getPeriod() {
+        return period;
+    }
+}
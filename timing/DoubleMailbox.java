@@ -0,0 +1,47 @@
+package frc.thunder.timing;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free, allocation-free mailbox for handing a double between threads, for example
+ * a setpoint from the command loop to a {@link FastLoop}.
+ */
+public class DoubleMailbox {
+    private final AtomicLong bits;
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * @param initialValue the value read before anything is posted
+     */
+    public DoubleMailbox(double initialValue) {
+        bits = new AtomicLong(Double.doubleToRawLongBits(initialValue));
+    }
+
+    /**
+     * Posts a new value, replacing the previous one
+     * 
+     * @param value the value to post
+     */
+    public void post(double value) {
+        // store the value first, so a reader that sees the new sequence also sees this value
+        bits.set(Double.doubleToRawLongBits(value));
+        sequence.incrementAndGet();
+    }
+
+    /**
+     * @return the latest posted value
+     */
+    public double get() {
+        return Double.longBitsToDouble(bits.get());
+    }
+
+    /**
+     * Counts every post, including concurrent ones. Read it before {@link #get()}: the value read
+     * afterwards is at least as new as the post that set the sequence.
+     *
+     * @return a counter that changes every time a value is posted
+     */
+    public long getSequence() {
+        return sequence.get();
+    }
+}
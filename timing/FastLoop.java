@@ -0,0 +1,158 @@
+package frc.thunder.timing;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import edu.wpi.first.networktables.DoubleArrayPublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Notifier;
+import edu.wpi.first.wpilibj.RobotController;
+
+/**
+ * A high rate control loop that runs on its own {@link Notifier} next to the 20ms robot loop.
+ * 
+ * USAGE: create a FastLoop in your subsystem, {@link #add(Runnable) add} your control callbacks and
+ * {@link #start()} it. Pass setpoints in from commands through a {@link DoubleMailbox} or
+ * {@link Mailbox} so the callbacks never wait on the command loop.
+ * 
+ * Callbacks run on the notifier thread and must be thread safe. Jitter (how far each run started
+ * from its nominal period) and callback duration are published to
+ * {@code LightningRobot/FastLoops/<name>} as {@code [p50, p95, p99, max]} in milliseconds.
+ */
+public class FastLoop {
+    private static final List<FastLoop> loops = new CopyOnWriteArrayList<>();
+
+    private final String name;
+    private final double period;
+    private final long periodMicros;
+    private final Notifier notifier;
+    private final List<Runnable> callbacks = new CopyOnWriteArrayList<>();
+
+    private final LoopHistogram jitter = new LoopHistogram(10, 2000);
+    private final LoopHistogram duration = new LoopHistogram(10, 2000);
+    private final double[] jitterSnapshot = new double[4];
+    private final double[] durationSnapshot = new double[4];
+
+    // written by start() and the notifier thread
+    private volatile long lastStart = 0;
+    private final AtomicLong overruns = new AtomicLong();
+
+    private DoubleArrayPublisher jitterPublisher;
+    private DoubleArrayPublisher durationPublisher;
+
+    /**
+     * @param name the name of the loop, used for the thread name and NT
+     * @param period the period of the loop in seconds, e.g. 0.005 for 200Hz
+     */
+    public FastLoop(String name, double period) {
+        this.name = name;
+        this.period = period;
+        this.periodMicros = Math.round(period * 1e6);
+        this.notifier = new Notifier(this::run);
+        notifier.setName("FastLoop-" + name);
+        loops.add(this);
+    }
+
+    /**
+     * Adds a callback to run every period
+     * 
+     * @param callback the control callback
+     * @return this loop, for chaining
+     */
+    public FastLoop add(Runnable callback) {
+        callbacks.add(callback);
+        return this;
+    }
+
+    /**
+     * Starts running the callbacks
+     */
+    public void start() {
+        lastStart = 0;
+        notifier.startPeriodic(period);
+    }
+
+    /**
+     * Stops running the callbacks
+     */
+    public void stop() {
+        notifier.stop();
+    }
+
+    private void run() {
+        long start = RobotController.getFPGATime();
+
+        for (Runnable callback : callbacks) {
+            // a failing callback must not stop the others or the notifier
+            try {
+                callback.run();
+            } catch (Throwable t) {
+                DriverStation.reportError("Exception in fast loop " + name + ": " + t, t.getStackTrace());
+            }
+        }
+
+        long end = RobotController.getFPGATime();
+        synchronized (this) {
+            if (lastStart != 0) {
+                jitter.record(Math.abs(start - lastStart - periodMicros));
+            }
+            duration.record(end - start);
+        }
+        if (end - start > periodMicros) {
+            overruns.incrementAndGet();
+        }
+        lastStart = start;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the number of runs that took longer than the period
+     */
+    public long getOverruns() {
+        return overruns.get();
+    }
+
+    /**
+     * Publishes jitter and duration statistics to NT
+     */
+    public void publish() {
+        if (jitterPublisher == null) {
+            NetworkTable table = NetworkTableInstance.getDefault().getTable("LightningRobot/FastLoops").getSubTable(name);
+            jitterPublisher = table.getDoubleArrayTopic("jitter").publish();
+            durationPublisher = table.getDoubleArrayTopic("duration").publish();
+        }
+
+        // only copy under the lock, the NT writes must not hold up the notifier thread
+        synchronized (this) {
+            jitter.snapshot(jitterSnapshot);
+            duration.snapshot(durationSnapshot);
+        }
+        jitterPublisher.set(jitterSnapshot);
+        durationPublisher.set(durationSnapshot);
+    }
+
+    /**
+     * Publishes the statistics of every fast loop, called by {@link frc.thunder.LightningRobot}
+     */
+    public static void publishAll() {
+        for (FastLoop loop : loops) {
+            loop.publish();
+        }
+    }
+
+    /**
+     * Raises the priority of the HAL notifier thread, which runs every {@link Notifier} callback
+     * 
+     * @param priority real-time priority between 1 and 99, 40 is a good start on the roboRIO
+     * @return true if the priority was set
+     */
+    public static boolean setRealTimePriority(int priority) {
+        return Notifier.setHALThreadPriority(true, priority);
+    }
+}
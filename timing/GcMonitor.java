@@ -0,0 +1,233 @@
+package frc.thunder.timing;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.RuntimeMXBean;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.ThreadMXBean;
+
+import edu.wpi.first.networktables.DoubleArrayPublisher;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.util.datalog.DoubleLogEntry;
+import edu.wpi.first.util.datalog.IntegerLogEntry;
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.DriverStation;
+
+/**
+ * Records GC pauses and the main loop's allocation rate, and marks loop overruns that overlapped a pause.
+ * 
+ * Pauses come from {@link GarbageCollectorMXBean} notifications, leaving out the cycles of concurrent
+ * collectors, and allocation from the per-thread allocated bytes counter of the thread calling
+ * {@link #loopStart()}. Every pause and every loop's
+ * allocation is written to DataLog under {@code /LightningRobot/GC}, and {@link #publish()} sends
+ * {@code [pauses, totalPauseMs, maxPauseMs, meanLoopBytes, maxLoopBytes, overBudgetLoops, overrunsDuringGC]}
+ * to {@code LightningRobot/GC/stats}.
+ */
+public class GcMonitor implements NotificationListener {
+    private static final int HISTORY = 64;
+    // how long an unmatched overrun waits for a late GC notification, in ms
+    private static final long MATCH_WINDOW = 2000;
+
+    private final ThreadMXBean threadBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final RuntimeMXBean runtimeBean = ManagementFactory.getRuntimeMXBean();
+    private final double[] stats = new double[7];
+
+    // pause history in ms since the JVM started, written by the notification thread
+    private final long[] pauseStarts = new long[HISTORY];
+    private final long[] pauseEnds = new long[HISTORY];
+    private int pauseIndex = 0;
+    private long pauses = 0;
+    private long totalPause = 0;
+    private long maxPause = 0;
+
+    // overrun loops waiting to be matched against pauses, main thread only
+    private final long[] overrunStarts = new long[HISTORY];
+    private final long[] overrunEnds = new long[HISTORY];
+    private int overrunCount = 0;
+    private long overrunsDuringGC = 0;
+
+    private long threadId;
+    private long loopStartBytes;
+    private long loopStartTime;
+    private long allocationBudget = 0;
+    private long overBudgetLoops = 0;
+    private long maxLoopBytes = 0;
+    private long totalLoopBytes = 0;
+    private long loops = 0;
+    private boolean budgetReported = false;
+
+    private DoubleLogEntry pauseLog;
+    private IntegerLogEntry allocationLog;
+    private IntegerLogEntry overrunLog;
+    private DoubleArrayPublisher statsPublisher;
+
+    /**
+     * Registers for GC notifications, call after DataLogManager has been started
+     */
+    public void start() {
+        pauseLog = new DoubleLogEntry(DataLogManager.getLog(), "/LightningRobot/GC/pauseMs");
+        allocationLog = new IntegerLogEntry(DataLogManager.getLog(), "/LightningRobot/GC/loopAllocatedBytes");
+        overrunLog = new IntegerLogEntry(DataLogManager.getLog(), "/LightningRobot/GC/overrunsDuringGC");
+        statsPublisher = NetworkTableInstance.getDefault().getTable("LightningRobot/GC").getDoubleArrayTopic("stats").publish();
+
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (bean instanceof NotificationEmitter) {
+                ((NotificationEmitter) bean).addNotificationListener(this, null, null);
+            }
+        }
+    }
+
+    /**
+     * Sets the number of bytes the main loop may allocate per cycle before it is counted as over budget
+     * 
+     * @param bytes the allocation budget, 0 for no budget
+     */
+    public void setAllocationBudget(long bytes) {
+        allocationBudget = bytes;
+    }
+
+    /**
+     * Marks the start of a loop, call from the main robot thread
+     */
+    public void loopStart() {
+        threadId = Thread.currentThread().getId();
+        loopStartBytes = threadBean.getThreadAllocatedBytes(threadId);
+        loopStartTime = uptime();
+    }
+
+    /**
+     * Marks the end of a loop, call from the main robot thread
+     * 
+     * @param overran true if the loop ran past its period
+     */
+    public void loopEnd(boolean overran) {
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - loopStartBytes;
+        loops++;
+        totalLoopBytes += allocated;
+        maxLoopBytes = Math.max(maxLoopBytes, allocated);
+        allocationLog.append(allocated);
+
+        if (allocationBudget > 0 && allocated > allocationBudget) {
+            overBudgetLoops++;
+            if (!budgetReported) {
+                budgetReported = true;
+                DriverStation.reportWarning("Main loop allocated " + allocated + " bytes, budget is " + allocationBudget, false);
+            }
+        }
+
+        // GC notifications arrive after the pause, so overruns are matched when publishing
+        if (overran && overrunCount < HISTORY) {
+            overrunStarts[overrunCount] = loopStartTime;
+            overrunEnds[overrunCount] = uptime();
+            overrunCount++;
+        }
+    }
+
+    /**
+     * Matches recent overruns against GC pauses and publishes the statistics to NT. Overruns with no
+     * matching pause yet are retried on later calls for a couple of seconds.
+     */
+    public void publish() {
+        long now = uptime();
+        synchronized (this) {
+            // notifications can land after the next publish, so unmatched overruns wait out the window
+            int kept = 0;
+            for (int i = 0; i < overrunCount; i++) {
+                boolean matched = false;
+                for (int j = 0; j < Math.min(pauses, HISTORY); j++) {
+                    if (pauseStarts[j] <= overrunEnds[i] && pauseEnds[j] >= overrunStarts[i]) {
+                        matched = true;
+                        break;
+                    }
+                }
+
+                if (matched) {
+                    overrunsDuringGC++;
+                    overrunLog.append(overrunsDuringGC);
+                } else if (now - overrunEnds[i] < MATCH_WINDOW) {
+                    overrunStarts[kept] = overrunStarts[i];
+                    overrunEnds[kept] = overrunEnds[i];
+                    kept++;
+                }
+            }
+            overrunCount = kept;
+
+            stats[0] = pauses;
+            stats[1] = totalPause;
+            stats[2] = maxPause;
+        }
+
+        stats[3] = loops == 0 ? 0 : (double) totalLoopBytes / loops;
+        stats[4] = maxLoopBytes;
+        stats[5] = overBudgetLoops;
+        stats[6] = overrunsDuringGC;
+        statsPublisher.set(stats);
+    }
+
+    /**
+     * @return the number of loop overruns that overlapped a GC pause
+     */
+    public long getOverrunsDuringGC() {
+        return overrunsDuringGC;
+    }
+
+    /**
+     * @return the number of loops that allocated more than the budget
+     */
+    public long getOverBudgetLoops() {
+        return overBudgetLoops;
+    }
+
+    @Override
+    public void handleNotification(Notification notification, Object handback) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            return;
+        }
+
+        GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+        if (!isPause(info)) {
+            return;
+        }
+
+        long start = info.getGcInfo().getStartTime();
+        long end = info.getGcInfo().getEndTime();
+
+        synchronized (this) {
+            pauseStarts[pauseIndex] = start;
+            pauseEnds[pauseIndex] = end;
+            pauseIndex = (pauseIndex + 1) % HISTORY;
+            pauses++;
+            totalPause += end - start;
+            maxPause = Math.max(maxPause, end - start);
+        }
+        pauseLog.append(end - start);
+    }
+
+    /**
+     * Concurrent collectors also report their whole cycles, which run alongside the robot threads
+     * and don't stop the loop
+     *
+     * @return true if the notification is for a stop-the-world pause
+     */
+    private static boolean isPause(GarbageCollectionNotificationInfo info) {
+        // ZGC and Shenandoah report cycles as "end of GC cycle" from their "... Cycles" collectors
+        if (info.getGcAction().contains("cycle") || info.getGcName().endsWith("Cycles")) {
+            return false;
+        }
+        // CMS reports its concurrent phases with no GC cause
+        return !"No GC".equals(info.getGcCause());
+    }
+
+    /**
+     * @return ms since the JVM started, the same monotonic time base as GC notifications
+     */
+    private long uptime() {
+        return runtimeBean.getUptime();
+    }
+}
@@ -0,0 +1,121 @@
+package frc.thunder.timing;
+
+/**
+ * Fixed-bucket histogram of durations, used to track loop phase timing without
+ * allocating on the robot loop.
+ * 
+ * Durations are recorded in microseconds (the units of
+ * {@link edu.wpi.first.wpilibj.RobotController#getFPGATime()}) and reported in
+ * milliseconds. Anything beyond the last bucket is counted in an overflow
+ * bucket, but the true maximum is always kept.
+ */
+public class LoopHistogram {
+    private final long bucketWidth;
+    private final long[] buckets;
+
+    private long count = 0;
+    private long max = 0;
+    private long total = 0;
+
+    /**
+     * Creates a histogram with 25us buckets covering 0-50ms
+     */
+    public LoopHistogram() {
+        this(25, 2000);
+    }
+
+    /**
+     * @param bucketWidth width of each bucket in microseconds
+     * @param bucketCount number of buckets, an extra overflow bucket is added
+     */
+    public LoopHistogram(long bucketWidth, int bucketCount) {
+        this.bucketWidth = bucketWidth;
+        this.buckets = new long[bucketCount + 1];
+    }
+
+    /**
+     * Records a single duration
+     * 
+     * @param micros the duration in microseconds
+     */
+    public void record(long micros) {
+        if (micros < 0) {
+            micros = 0;
+        }
+
+        int index = (int) Math.min(micros / bucketWidth, buckets.length - 1);
+        buckets[index]++;
+        count++;
+        total += micros;
+        if (micros > max) {
+            max = micros;
+        }
+    }
+
+    /**
+     * @param percentile the percentile to get, between 0 and 1
+     * @return the upper bound of the bucket holding the percentile in milliseconds, 0 if empty
+     */
+    public double getPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+
+        long target = (long) Math.ceil(count * percentile);
+        long seen = 0;
+        for (int i = 0; i < buckets.length - 1; i++) {
+            seen += buckets[i];
+            if (seen >= target) {
+                return Math.min((i + 1) * bucketWidth, max) / 1000d;
+            }
+        }
+
+        // in the overflow bucket, the max is the best bound we have
+        return getMax();
+    }
+
+    /**
+     * @return the largest recorded duration in milliseconds
+     */
+    public double getMax() {
+        return max / 1000d;
+    }
+
+    /**
+     * @return the mean recorded duration in milliseconds
+     */
+    public double getMean() {
+        return count == 0 ? 0 : (double) total / count / 1000d;
+    }
+
+    /**
+     * @return the number of recorded durations
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Fills the given array with p50, p95, p99 and max, all in milliseconds
+     * 
+     * @param out array of at least 4 elements
+     */
+    public void snapshot(double[] out) {
+        out[0] = getPercentile(0.5);
+        out[1] = getPercentile(0.95);
+        out[2] = getPercentile(0.99);
+        out[3] = getMax();
+    }
+
+    /**
+     * Clears all recorded durations
+     */
+    public void reset() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = 0;
+        }
+        count = 0;
+        max = 0;
+        total = 0;
+    }
+}
@@ -0,0 +1,21 @@
+package frc.thunder.timing;
+
+/**
+ * The phases of a {@link frc.thunder.LightningRobot} loop that are timed by {@link LoopTimer}
+ */
+public enum LoopPhase {
+    /** The mode specific periodic (disabledPeriodic, teleopPeriodic, etc.) */
+    MODE,
+    /** {@link frc.thunder.LightningRobot#robotMediumPriorityPeriodic()} */
+    MEDIUM,
+    /** {@link frc.thunder.LightningRobot#robotLowPriorityPeriodic()} */
+    LOW,
+    /** {@link frc.thunder.LightningRobot#robotBackgroundPeriodic()} */
+    BACKGROUND,
+    /** {@code CommandScheduler.run()} */
+    SCHEDULER,
+    /** The end of loop {@code LightningShuffleboard.flush()} */
+    TELEMETRY,
+    /** The whole loop, including WPILib's dashboard updates */
+    TOTAL
+}
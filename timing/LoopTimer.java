@@ -0,0 +1,107 @@
+package frc.thunder.timing;
+
+import edu.wpi.first.networktables.DoubleArrayPublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.util.datalog.DoubleArrayLogEntry;
+import edu.wpi.first.wpilibj.DataLogManager;
+
+/**
+ * Keeps a {@link LoopHistogram} for every {@link LoopPhase} and publishes them to NT and DataLog.
+ * 
+ * Each phase is published as {@code [p50, p95, p99, max]} in milliseconds under
+ * {@code LightningRobot/LoopTiming/<phase>}.
+ * 
+ * @implNote recording is not thread safe, record from the main robot thread only
+ */
+public class LoopTimer {
+    private static final String TABLE = "LightningRobot/LoopTiming";
+    private static final double HEADROOM_SMOOTHING = 0.1;
+
+    // smoothed fraction of the loop period left unused, static so telemetry can read it without a robot reference
+    private static volatile double headroom = 1;
+
+    private final LoopHistogram[] histograms = new LoopHistogram[LoopPhase.values().length];
+    private final double[] snapshot = new double[4];
+
+    private DoubleArrayPublisher[] publishers;
+    private DoubleArrayLogEntry[] logEntries;
+
+    public LoopTimer() {
+        for (LoopPhase phase : LoopPhase.values()) {
+            histograms[phase.ordinal()] = new LoopHistogram();
+        }
+    }
+
+    /**
+     * Records a duration for a phase
+     * 
+     * @param phase the phase that was timed
+     * @param micros the duration in microseconds
+     */
+    public void record(LoopPhase phase, long micros) {
+        histograms[phase.ordinal()].record(micros);
+    }
+
+    /**
+     * Updates the loop headroom with one loop's duration, LightningRobot calls this every loop
+     * 
+     * @param micros the duration of the loop in microseconds
+     * @param period the loop period in seconds
+     */
+    public static void updateHeadroom(long micros, double period) {
+        double sample = 1 - micros / (period * 1e6);
+        headroom += HEADROOM_SMOOTHING * (sample - headroom);
+    }
+
+    /**
+     * @return the fraction of the loop period left unused, smoothed over roughly the last 10 loops.
+     * Negative when loops overrun.
+     */
+    public static double getHeadroom() {
+        return headroom;
+    }
+
+    /**
+     * @param phase the phase to get
+     * @return the histogram for the phase
+     */
+    public LoopHistogram get(LoopPhase phase) {
+        return histograms[phase.ordinal()];
+    }
+
+    /**
+     * Clears all histograms, used to start fresh at the beginning of a match period
+     */
+    public void reset() {
+        for (LoopHistogram histogram : histograms) {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * Publishes every phase to NT and DataLog
+     * 
+     * @implNote this walks every bucket, call it on a low priority cadence
+     */
+    public void publish() {
+        if (publishers == null) {
+            NetworkTable table = NetworkTableInstance.getDefault().getTable(TABLE);
+            publishers = new DoubleArrayPublisher[histograms.length];
+            logEntries = new DoubleArrayLogEntry[histograms.length];
+            for (LoopPhase phase : LoopPhase.values()) {
+                publishers[phase.ordinal()] = table.getDoubleArrayTopic(phase.name()).publish();
+                logEntries[phase.ordinal()] = new DoubleArrayLogEntry(DataLogManager.getLog(), "/" + TABLE + "/" + phase.name());
+            }
+        }
+
+        for (int i = 0; i < histograms.length; i++) {
+            if (histograms[i].getCount() == 0) {
+                continue;
+            }
+            histograms[i].snapshot(snapshot);
+            publishers[i].set(snapshot);
+            logEntries[i].append(snapshot);
+        }
+    }
+}
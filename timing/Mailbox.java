@@ -0,0 +1,51 @@
+package frc.thunder.timing;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free single value mailbox for handing objects between threads, for example
+ * setpoints from the command loop to a {@link FastLoop}.
+ * 
+ * Writers replace the value, readers always see the latest complete value. Values
+ * should be immutable, the mailbox does not copy them.
+ */
+public class Mailbox<T> {
+    private final AtomicReference<T> value;
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * @param initialValue the value read before anything is posted
+     */
+    public Mailbox(T initialValue) {
+        value = new AtomicReference<>(initialValue);
+    }
+
+    /**
+     * Posts a new value, replacing the previous one
+     * 
+     * @param newValue the value to post
+     */
+    public void post(T newValue) {
+        // store the value first, so a reader that sees the new sequence also sees this value
+        value.set(newValue);
+        sequence.incrementAndGet();
+    }
+
+    /**
+     * @return the latest posted value
+     */
+    public T get() {
+        return value.get();
+    }
+
+    /**
+     * Counts every post, including concurrent ones. Read it before {@link #get()}: the value read
+     * afterwards is at least as new as the post that set the sequence.
+     *
+     * @return a counter that changes every time a value is posted
+     */
+    public long getSequence() {
+        return sequence.get();
+    }
+}
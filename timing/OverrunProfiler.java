@@ -0,0 +1,175 @@
+package frc.thunder.timing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import edu.wpi.first.networktables.StringArrayPublisher;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.util.datalog.StringArrayLogEntry;
+import edu.wpi.first.util.datalog.StringLogEntry;
+import edu.wpi.first.wpilibj.DataLogManager;
+
+/**
+ * Watchdog that samples the main robot thread's stack while a loop is running past its deadline.
+ * 
+ * Samples are keyed by the innermost non-JDK frame, so the profile points at the code that was
+ * running rather than the JDK internals it called. When that frame is in a library such as WPILib,
+ * the innermost {@code frc.} frame that called it is appended as {@code "<leaf> <- <caller>"}. Every sample is written to DataLog under
+ * {@code /LightningRobot/Overruns/samples}, and {@link #publish()} writes the aggregated profile
+ * ({@code "<samples> <call site>"}, most samples first) to {@code LightningRobot/Overruns/profile}
+ * in NT and DataLog.
+ */
+public class OverrunProfiler {
+    private static final int PROFILE_SIZE = 10;
+
+    private final Thread target;
+    private final long deadlineNanos;
+    private final long sampleIntervalMillis;
+    private final Map<String, LongAdder> samples = new ConcurrentHashMap<>();
+
+    private volatile long cycleStart = 0;
+    private volatile long overrunCycles = 0;
+    private volatile boolean running = false;
+
+    private Thread sampler;
+    private StringLogEntry sampleLog;
+    private StringArrayLogEntry profileLog;
+    private StringArrayPublisher profilePublisher;
+
+    /**
+     * @param target the thread to sample, usually the main robot thread
+     * @param deadline the cycle deadline in seconds
+     * @param sampleInterval the time between samples in seconds
+     */
+    public OverrunProfiler(Thread target, double deadline, double sampleInterval) {
+        this.target = target;
+        this.deadlineNanos = Math.round(deadline * 1e9);
+        this.sampleIntervalMillis = Math.max(1, Math.round(sampleInterval * 1000));
+    }
+
+    /**
+     * Starts the sampling thread, call after DataLogManager has been started
+     */
+    public void start() {
+        if (running) {
+            return;
+        }
+
+        sampleLog = new StringLogEntry(DataLogManager.getLog(), "/LightningRobot/Overruns/samples");
+        profileLog = new StringArrayLogEntry(DataLogManager.getLog(), "/LightningRobot/Overruns/profile");
+        profilePublisher = NetworkTableInstance.getDefault().getTable("LightningRobot/Overruns").getStringArrayTopic("profile").publish();
+
+        running = true;
+        sampler = new Thread(this::sample, "LightningRobot-OverrunProfiler");
+        sampler.setDaemon(true);
+        sampler.start();
+    }
+
+    /**
+     * Stops the sampling thread
+     */
+    public void stop() {
+        running = false;
+        if (sampler != null) {
+            sampler.interrupt();
+        }
+    }
+
+    /**
+     * Marks the start of a cycle, call from the target thread
+     */
+    public void cycleStart() {
+        cycleStart = System.nanoTime();
+    }
+
+    /**
+     * Marks the end of a cycle, call from the target thread
+     */
+    public void cycleEnd() {
+        if (System.nanoTime() - cycleStart > deadlineNanos) {
+            overrunCycles++;
+        }
+        cycleStart = 0;
+    }
+
+    /**
+     * @return the number of cycles that ran past the deadline
+     */
+    public long getOverrunCycles() {
+        return overrunCycles;
+    }
+
+    /**
+     * Writes the aggregated profile to NT and DataLog
+     */
+    public void publish() {
+        if (!running || samples.isEmpty()) {
+            return;
+        }
+
+        List<Map.Entry<String, LongAdder>> entries = new ArrayList<>(samples.entrySet());
+        entries.sort((a, b) -> Long.compare(b.getValue().sum(), a.getValue().sum()));
+
+        String[] profile = new String[Math.min(PROFILE_SIZE, entries.size())];
+        for (int i = 0; i < profile.length; i++) {
+            profile[i] = entries.get(i).getValue().sum() + " " + entries.get(i).getKey();
+        }
+
+        profilePublisher.set(profile);
+        profileLog.append(profile);
+    }
+
+    /**
+     * Clears the aggregated profile
+     */
+    public void reset() {
+        samples.clear();
+    }
+
+    private void sample() {
+        while (running) {
+            try {
+                Thread.sleep(sampleIntervalMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            long start = cycleStart;
+            if (start == 0 || System.nanoTime() - start <= deadlineNanos) {
+                continue;
+            }
+
+            String site = callSite(target.getStackTrace());
+            if (site != null && cycleStart == start) {
+                samples.computeIfAbsent(site, key -> new LongAdder()).increment();
+                sampleLog.append(site);
+            }
+        }
+    }
+
+    /**
+     * @return the innermost frame outside the JDK (or the innermost frame if there is none), followed
+     * by the innermost {@code frc.} frame if the leaf is not one
+     */
+    private static String callSite(StackTraceElement[] stack) {
+        if (stack.length == 0) {
+            return null;
+        }
+
+        StackTraceElement leaf = null;
+        for (StackTraceElement frame : stack) {
+            String className = frame.getClassName();
+            if (leaf == null && !className.startsWith("java.") && !className.startsWith("jdk.") && !className.startsWith("sun.")) {
+                leaf = frame;
+            }
+            // WPILib and vendor frames say what blocked, the robot frame says who called it
+            if (className.startsWith("frc.")) {
+                return leaf == frame ? frame.toString() : leaf + " <- " + frame;
+            }
+        }
+        return (leaf == null ? stack[0] : leaf).toString();
+    }
+}
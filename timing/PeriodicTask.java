@@ -0,0 +1,175 @@
+package frc.thunder.timing;
+
+import edu.wpi.first.networktables.DoubleArrayPublisher;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import frc.thunder.timing.TierScheduler.Slot;
+import frc.thunder.timing.TierScheduler.Tier;
+
+/**
+ * A named piece of tiered work registered through {@link PeriodicTaskRegistry}.
+ * 
+ * Every run is timed against the task's budget. A task that runs over budget
+ * {@link PeriodicTaskRegistry#setDemoteAfter(int) too many times in a row} is moved to the
+ * next slower tier.
+ */
+public class PeriodicTask {
+    private final String name;
+    private final double budget;
+    private final Runnable action;
+
+    // the tier and slot change together, so readers on tier threads never see a mixed pair
+    private volatile Placement placement;
+
+    private volatile long lastDuration = 0;
+    private volatile long maxDuration = 0;
+    private volatile double averageCost = 0;
+    private volatile long runs = 0;
+    private volatile long overBudgetRuns = 0;
+    private volatile int consecutiveOverBudget = 0;
+    private volatile boolean reported = false;
+    private volatile boolean demotionPending = false;
+
+    private DoubleArrayPublisher publisher;
+
+    PeriodicTask(String name, Tier tier, double budget, Runnable action) {
+        this.name = name;
+        this.placement = new Placement(tier, null);
+        this.budget = budget;
+        this.action = action;
+    }
+
+    /**
+     * Records how long a run took
+     * 
+     * @param duration the duration of the run in microseconds
+     * @param demoteAfter consecutive over budget runs before demotion is requested, 0 to never demote
+     */
+    void record(long duration, int demoteAfter) {
+        lastDuration = duration;
+        if (duration > maxDuration) {
+            maxDuration = duration;
+        }
+        averageCost = averageCost * 0.9 + duration / 1e6 * 0.1;
+        runs++;
+
+        if (duration / 1e6 > budget) {
+            overBudgetRuns++;
+            consecutiveOverBudget++;
+            if (demoteAfter > 0 && consecutiveOverBudget >= demoteAfter && placement.tier != Tier.BACKGROUND) {
+                demotionPending = true;
+            }
+        } else {
+            consecutiveOverBudget = 0;
+        }
+    }
+
+    Runnable getAction() {
+        return action;
+    }
+
+    /**
+     * An immutable tier and slot pair, replaced as a whole when the task is placed or demoted
+     */
+    private static class Placement {
+        private final Tier tier;
+        private final Slot slot;
+
+        private Placement(Tier tier, Slot slot) {
+            this.tier = tier;
+            this.slot = slot;
+        }
+    }
+
+    Slot getSlot() {
+        return placement.slot;
+    }
+
+    void setSlot(Tier tier, Slot slot) {
+        placement = new Placement(tier, slot);
+    }
+
+    /**
+     * @param tier the tier being run
+     * @param scheduler the scheduler the task is placed on
+     * @param tick the current tick
+     * @return true if the task is placed in the tier and due this tick
+     */
+    boolean isDue(Tier tier, TierScheduler scheduler, long tick) {
+        Placement current = placement;
+        return current.tier == tier && current.slot != null && scheduler.isDue(current.slot, tick);
+    }
+
+    boolean takeDemotion() {
+        if (!demotionPending) {
+            return false;
+        }
+        demotionPending = false;
+        consecutiveOverBudget = 0;
+        return true;
+    }
+
+    DoubleArrayPublisher getPublisher() {
+        if (publisher == null) {
+            publisher = NetworkTableInstance.getDefault().getTable("LightningRobot/PeriodicTasks").getDoubleArrayTopic(name).publish();
+        }
+        return publisher;
+    }
+
+    boolean shouldReport() {
+        if (reported || overBudgetRuns == 0) {
+            return false;
+        }
+        reported = true;
+        return true;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the tier the task currently runs in, which may be slower than requested if it was demoted
+     */
+    public Tier getTier() {
+        return placement.tier;
+    }
+
+    /**
+     * @return the time budget in seconds
+     */
+    public double getBudget() {
+        return budget;
+    }
+
+    /**
+     * @return the duration of the last run in seconds
+     */
+    public double getLastDuration() {
+        return lastDuration / 1e6;
+    }
+
+    /**
+     * @return the longest run in seconds
+     */
+    public double getMaxDuration() {
+        return maxDuration / 1e6;
+    }
+
+    /**
+     * @return a moving average of the run duration in seconds
+     */
+    public double getAverageCost() {
+        return averageCost;
+    }
+
+    public long getRuns() {
+        return runs;
+    }
+
+    /**
+     * @return the number of runs that exceeded the budget
+     */
+    public long getOverBudgetRuns() {
+        return overBudgetRuns;
+    }
+}
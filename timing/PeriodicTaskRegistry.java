@@ -0,0 +1,144 @@
+package frc.thunder.timing;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.RobotController;
+import frc.thunder.timing.TierScheduler.Tier;
+
+/**
+ * Registry of named periodic tasks run by {@link frc.thunder.LightningRobot} in its priority tiers.
+ * 
+ * USAGE: register tasks from your subsystem constructors, for example
+ * {@code PeriodicTaskRegistry.register("Intake.diagnostics", Tier.LOW, 0.002, this::checkSensors)}.
+ * Tasks are spread across ticks by the robot's {@link TierScheduler}, timed every run,
+ * and published to {@code LightningRobot/PeriodicTasks} as
+ * {@code [average, max, budget, overBudgetRuns]} (times in milliseconds).
+ */
+public class PeriodicTaskRegistry {
+    private static final List<PeriodicTask> tasks = new CopyOnWriteArrayList<>();
+    private static final double[] snapshot = new double[4];
+
+    private static TierScheduler scheduler;
+    private static int demoteAfter = 5;
+
+    /**
+     * Registers a task to run in a priority tier
+     * 
+     * @param name unique name of the task, used for NT and warnings
+     * @param tier the tier to run the task in
+     * @param budget the time budget of a single run in seconds
+     * @param action the work to run
+     * @return the registered task, for reading its statistics
+     */
+    public static synchronized PeriodicTask register(String name, Tier tier, double budget, Runnable action) {
+        PeriodicTask task = new PeriodicTask(name, tier, budget, action);
+        if (scheduler != null) {
+            task.setSlot(tier, scheduler.addSlot(tier, 0));
+        }
+        tasks.add(task);
+        return task;
+    }
+
+    /**
+     * Sets how many consecutive over budget runs cause a task to be demoted to the next slower tier.
+     * With async tiers, MEDIUM tasks are never demoted since the slower tiers run on other threads.
+     * 
+     * @param runs consecutive over budget runs, 0 to never demote
+     */
+    public static void setDemoteAfter(int runs) {
+        demoteAfter = runs;
+    }
+
+    /**
+     * Places every task on the scheduler, called by {@link frc.thunder.LightningRobot}.
+     * Tasks registered later are placed as they are registered.
+     * 
+     * @param tierScheduler the scheduler of the robot loop
+     */
+    public static synchronized void attach(TierScheduler tierScheduler) {
+        scheduler = tierScheduler;
+        for (PeriodicTask task : tasks) {
+            task.setSlot(task.getTier(), scheduler.addSlot(task.getTier(), 0));
+        }
+    }
+
+    /**
+     * @param tier the tier to check
+     * @param tick the current tick
+     * @return true if any task in the tier is due this tick
+     */
+    public static boolean hasDue(Tier tier, long tick) {
+        for (PeriodicTask task : tasks) {
+            if (task.isDue(tier, scheduler, tick)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Runs the tasks in a tier that are due this tick. May be called from a tier thread.
+     * 
+     * @param tier the tier to run
+     * @param tick the current tick
+     */
+    public static void run(Tier tier, long tick) {
+        for (PeriodicTask task : tasks) {
+            if (task.isDue(tier, scheduler, tick)) {
+                long start = RobotController.getFPGATime();
+                try {
+                    task.getAction().run();
+                } catch (Exception e) {
+                    DriverStation.reportError("Exception in periodic task " + task.getName() + ": " + e, e.getStackTrace());
+                }
+                task.record(RobotController.getFPGATime() - start, demoteAfter);
+            }
+        }
+    }
+
+    /**
+     * Applies pending demotions, feeds measured costs back into the scheduler, and publishes
+     * task statistics. Must be called from the main robot thread.
+     * 
+     * @param asyncTiers true if the low and background tiers run off the main thread, so they cost the main loop nothing
+     */
+    public static synchronized void update(boolean asyncTiers) {
+        if (scheduler == null) {
+            return;
+        }
+
+        for (PeriodicTask task : tasks) {
+            if (task.shouldReport()) {
+                DriverStation.reportWarning("Periodic task " + task.getName() + " exceeded its "
+                        + task.getBudget() * 1000 + "ms budget (" + task.getMaxDuration() * 1000 + "ms)", false);
+            }
+
+            // with async tiers only MEDIUM runs on the main thread, demoting it would move the task onto a tier thread
+            boolean crossesThreads = asyncTiers && task.getTier() == Tier.MEDIUM;
+            if (task.takeDemotion() && !crossesThreads) {
+                Tier slower = task.getTier().slower();
+                DriverStation.reportWarning("Periodic task " + task.getName() + " demoted to " + slower, false);
+                scheduler.removeSlot(task.getSlot());
+                task.setSlot(slower, scheduler.addSlot(slower, task.getAverageCost()));
+            }
+
+            boolean offMainThread = asyncTiers && task.getTier() != Tier.MEDIUM;
+            scheduler.setCost(task.getSlot(), offMainThread ? 0 : task.getAverageCost());
+
+            snapshot[0] = task.getAverageCost() * 1000;
+            snapshot[1] = task.getMaxDuration() * 1000;
+            snapshot[2] = task.getBudget() * 1000;
+            snapshot[3] = task.getOverBudgetRuns();
+            task.getPublisher().set(snapshot);
+        }
+    }
+
+    /**
+     * @return every registered task
+     */
+    public static List<PeriodicTask> getTasks() {
+        return tasks;
+    }
+}
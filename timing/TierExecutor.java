@@ -0,0 +1,99 @@
+package frc.thunder.timing;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import edu.wpi.first.networktables.IntegerPublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.wpilibj.DriverStation;
+
+/**
+ * Runs a priority tier on its own daemon thread so it can never stretch the main loop.
+ * 
+ * Only one run may be in flight at a time, if the previous run has not finished when the
+ * tier comes due again the new run is skipped and counted as an overrun instead of queued.
+ */
+public class TierExecutor {
+    private final String name;
+    private final ExecutorService executor;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicLong overruns = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+
+    private IntegerPublisher overrunPublisher;
+    private IntegerPublisher completedPublisher;
+
+    /**
+     * @param name the name of the tier, used for the thread name and NT
+     */
+    public TierExecutor(String name) {
+        this.name = name;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "LightningRobot-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Runs the task on the tier thread unless the previous run is still going
+     * 
+     * @param task the work to run
+     * @return true if the task was submitted, false if it was skipped as an overrun
+     */
+    public boolean submit(Runnable task) {
+        if (!running.compareAndSet(false, true)) {
+            overruns.incrementAndGet();
+            return false;
+        }
+
+        executor.execute(() -> {
+            try {
+                task.run();
+            } catch (Throwable t) {
+                DriverStation.reportError("Exception in " + name + " tier: " + t, t.getStackTrace());
+            } finally {
+                completed.incrementAndGet();
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * @return true if a run is currently in flight
+     */
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * @return the number of runs skipped because the previous run had not finished
+     */
+    public long getOverruns() {
+        return overruns.get();
+    }
+
+    /**
+     * @return the number of runs that have finished
+     */
+    public long getCompleted() {
+        return completed.get();
+    }
+
+    /**
+     * Publishes the overrun and completed counters to {@code LightningRobot/AsyncTiers/<name>}
+     */
+    public void publish() {
+        if (overrunPublisher == null) {
+            NetworkTable table = NetworkTableInstance.getDefault().getTable("LightningRobot/AsyncTiers").getSubTable(name);
+            overrunPublisher = table.getIntegerTopic("overruns").publish();
+            completedPublisher = table.getIntegerTopic("completed").publish();
+        }
+        overrunPublisher.set(overruns.get());
+        completedPublisher.set(completed.get());
+    }
+}
@@ -0,0 +1,204 @@
+package frc.thunder.timing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decides which tick each piece of tiered work runs on.
+ * 
+ * Every piece of work gets a {@link Slot} with a phase offset inside its tier's period.
+ * Offsets are picked so the estimated cost is spread across ticks instead of every tier
+ * landing on the same tick (as plain {@code counter % freq} does every 10 seconds).
+ * 
+ * The scheduler keeps the estimated load of every tick over one hyperperiod (the longest
+ * tier period) so it can report the worst-case tick.
+ * 
+ * Slots are added from registration on any thread and costed from the main loop, so every
+ * method that touches the load is synchronized. {@link #isDue(Slot, long)} only reads a slot's
+ * fixed placement and takes no lock.
+ */
+public class TierScheduler {
+
+    /**
+     * The priority tiers and their periods in seconds
+     */
+    public enum Tier {
+        MEDIUM(0.1), LOW(1), BACKGROUND(10);
+
+        public final double period;
+
+        Tier(double period) {
+            this.period = period;
+        }
+
+        /**
+         * @return the next slower tier, or this tier if it is already the slowest
+         */
+        public Tier slower() {
+            return this == BACKGROUND ? BACKGROUND : values()[ordinal() + 1];
+        }
+    }
+
+    /**
+     * A piece of scheduled work
+     */
+    public static class Slot {
+        private final Tier tier;
+        private final int period;
+        private final int offset;
+        // changed under the scheduler's lock, read without it
+        private volatile double cost;
+
+        private Slot(Tier tier, int period, int offset, double cost) {
+            this.tier = tier;
+            this.period = period;
+            this.offset = offset;
+            this.cost = cost;
+        }
+
+        public Tier getTier() {
+            return tier;
+        }
+
+        /**
+         * @return the phase offset of this slot in ticks
+         */
+        public int getOffset() {
+            return offset;
+        }
+
+        /**
+         * @return the estimated cost of this slot in seconds
+         */
+        public double getCost() {
+            return cost;
+        }
+    }
+
+    private final int[] periodTicks = new int[Tier.values().length];
+    private final int hyperperiod;
+    private final double[] load;
+    private final int[] occupancy;
+    private final List<Slot> slots = new ArrayList<>();
+
+    /**
+     * @param loopPeriod the robot loop period in seconds
+     */
+    public TierScheduler(double loopPeriod) {
+        int longest = 1;
+        for (Tier tier : Tier.values()) {
+            periodTicks[tier.ordinal()] = Math.max(1, (int) Math.round(tier.period / loopPeriod));
+            longest = Math.max(longest, periodTicks[tier.ordinal()]);
+        }
+
+        // the tier periods are all multiples of each other, so the longest is the hyperperiod
+        hyperperiod = longest;
+        load = new double[hyperperiod];
+        occupancy = new int[hyperperiod];
+    }
+
+    /**
+     * @param tier the tier
+     * @return the period of the tier in ticks
+     */
+    public int getPeriodTicks(Tier tier) {
+        return periodTicks[tier.ordinal()];
+    }
+
+    /**
+     * Adds work to a tier, placing it on the offset with the lowest estimated load.
+     * Ties go to the offset shared with the least other work.
+     * 
+     * @param tier the tier to run in
+     * @param cost the estimated cost in seconds, 0 if unknown
+     * @return the slot to check with {@link #isDue(Slot, long)}
+     */
+    public synchronized Slot addSlot(Tier tier, double cost) {
+        int period = periodTicks[tier.ordinal()];
+
+        int bestOffset = 0;
+        double bestLoad = Double.MAX_VALUE;
+        int bestOccupancy = Integer.MAX_VALUE;
+        for (int offset = 0; offset < period; offset++) {
+            double worstLoad = 0;
+            int worstOccupancy = 0;
+            for (int tick = offset; tick < hyperperiod; tick += period) {
+                worstLoad = Math.max(worstLoad, load[tick]);
+                worstOccupancy = Math.max(worstOccupancy, occupancy[tick]);
+            }
+
+            if (worstLoad < bestLoad || (worstLoad == bestLoad && worstOccupancy < bestOccupancy)) {
+                bestOffset = offset;
+                bestLoad = worstLoad;
+                bestOccupancy = worstOccupancy;
+            }
+        }
+
+        Slot slot = new Slot(tier, period, bestOffset, cost);
+        slots.add(slot);
+        apply(slot, slot.cost, 1);
+        return slot;
+    }
+
+    /**
+     * Removes work from the scheduler
+     * 
+     * @param slot the slot to remove
+     */
+    public synchronized void removeSlot(Slot slot) {
+        if (slots.remove(slot)) {
+            apply(slot, -slot.cost, -1);
+        }
+    }
+
+    /**
+     * Updates the estimated cost of a slot, usually from measured timings
+     * 
+     * @param slot the slot to update
+     * @param cost the new estimated cost in seconds
+     */
+    public synchronized void setCost(Slot slot, double cost) {
+        apply(slot, cost - slot.cost, 0);
+        slot.cost = cost;
+    }
+
+    /**
+     * @param slot the slot to check
+     * @param tick the current tick
+     * @return true if the slot should run this tick
+     */
+    public boolean isDue(Slot slot, long tick) {
+        return tick % slot.period == slot.offset;
+    }
+
+    /**
+     * @return the highest estimated load of any tick in seconds
+     */
+    public synchronized double getWorstCaseLoad() {
+        double worst = 0;
+        for (double tickLoad : load) {
+            worst = Math.max(worst, tickLoad);
+        }
+        return worst;
+    }
+
+    /**
+     * @return the tick (within the hyperperiod) with the highest estimated load
+     */
+    public synchronized int getWorstCaseTick() {
+        int worst = 0;
+        for (int i = 1; i < hyperperiod; i++) {
+            if (load[i] > load[worst]) {
+                worst = i;
+            }
+        }
+        return worst;
+    }
+
+    private void apply(Slot slot, double cost, int count) {
+        for (int tick = slot.offset; tick < hyperperiod; tick += slot.period) {
+            load[tick] += cost;
+            occupancy[tick] += count;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package frc.thunder.tuning;
 import com.ctre.phoenix6.configs.MotionMagicConfigs;
 import com.ctre.phoenix6.configs.Slot0Configs;
 import frc.thunder.hardware.ThunderBird;
+import frc.thunder.shuffleboard.DoubleSubscription;
 import frc.thunder.shuffleboard.LightningShuffleboard;
 import java.util.function.Consumer;
 
@@ -25,6 +26,17 @@ public class FalconTuner {
     private double MMAGIC_CRUISE_VELOCITY = 0;
     private double MMAGIC_JERK = 0;
 
+    private DoubleSubscription kPSubscription;
+    private DoubleSubscription kISubscription;
+    private DoubleSubscription kDSubscription;
+    private DoubleSubscription kSSubscription;
+    private DoubleSubscription kVSubscription;
+    private DoubleSubscription kASubscription;
+    private DoubleSubscription accelSubscription;
+    private DoubleSubscription cruiseVelocitySubscription;
+    private DoubleSubscription jerkSubscription;
+    private DoubleSubscription setPointSubscription;
+
     /**
      * creates a new FalconTuner, which publishes *Slot0* PIDF gains to shuffleboard and applies them when changed; existing PID gains are copied
      * 
@@ -55,6 +67,26 @@ public class FalconTuner {
         MMAGIC_CRUISE_VELOCITY = MMagicConfigs.MotionMagicCruiseVelocity;
         MMAGIC_JERK = MMagicConfigs.MotionMagicJerk;
 
+        kPSubscription = LightningShuffleboard.doubleSubscription(tabName, "kP", kP);
+        kISubscription = LightningShuffleboard.doubleSubscription(tabName, "kI", kI);
+        kDSubscription = LightningShuffleboard.doubleSubscription(tabName, "kD", kD);
+        kSSubscription = LightningShuffleboard.doubleSubscription(tabName, "kS", kS);
+        kVSubscription = LightningShuffleboard.doubleSubscription(tabName, "kV", kV);
+        kASubscription = LightningShuffleboard.doubleSubscription(tabName, "kA", kA);
+        accelSubscription = LightningShuffleboard.doubleSubscription(tabName, "acceleration", MMAGIC_ACCEL);
+        cruiseVelocitySubscription = LightningShuffleboard.doubleSubscription(tabName, "cruiseVelocity", MMAGIC_CRUISE_VELOCITY);
+        jerkSubscription = LightningShuffleboard.doubleSubscription(tabName, "jerk", MMAGIC_JERK);
+        setPointSubscription = LightningShuffleboard.doubleSubscription(tabName, "setpoint", defaultSetPoint);
+    }
+
+    /**
+     * @return true if any gain changed on the dashboard since the last check
+     */
+    private boolean dashboardChanged() {
+        // non short-circuiting so every change flag is cleared
+        return kPSubscription.hasChanged() | kISubscription.hasChanged() | kDSubscription.hasChanged()
+                | kSSubscription.hasChanged() | kVSubscription.hasChanged() | kASubscription.hasChanged()
+                | accelSubscription.hasChanged() | cruiseVelocitySubscription.hasChanged() | jerkSubscription.hasChanged();
     }
 
     /**
@@ -77,21 +109,26 @@ public class FalconTuner {
     /**
      * updates the gains from shuffleboard and applies them if they have changed
      * 
+     * @implNote gains are only read and compared when a dashboard listener reported a change
      * @implNote must be called periodically to apply/detect changes
      */
     public void update() {
-        kP = LightningShuffleboard.getDouble(tabName, "kP", kP);
-        kI = LightningShuffleboard.getDouble(tabName, "kI", kI);
-        kD = LightningShuffleboard.getDouble(tabName, "kD", kD);
-        kS = LightningShuffleboard.getDouble(tabName, "kS", kS);
-        kV = LightningShuffleboard.getDouble(tabName, "kV", kV);
-        kA = LightningShuffleboard.getDouble(tabName, "kA", kA);
-        MMAGIC_ACCEL = LightningShuffleboard.getDouble(tabName, "acceleration", MMAGIC_ACCEL);
-        MMAGIC_CRUISE_VELOCITY = LightningShuffleboard.getDouble(tabName, "cruiseVelocity", MMAGIC_CRUISE_VELOCITY);
-        MMAGIC_JERK = LightningShuffleboard.getDouble(tabName, "jerk", MMAGIC_JERK);
-
-        setPointSupplier.accept(LightningShuffleboard.getDouble(tabName, "setpoint", defaultSetPoint));
-            
+        setPointSupplier.accept(setPointSubscription.get());
+
+        if(!dashboardChanged()) {
+            return;
+        }
+
+        kP = kPSubscription.get();
+        kI = kISubscription.get();
+        kD = kDSubscription.get();
+        kS = kSSubscription.get();
+        kV = kVSubscription.get();
+        kA = kASubscription.get();
+        MMAGIC_ACCEL = accelSubscription.get();
+        MMAGIC_CRUISE_VELOCITY = cruiseVelocitySubscription.get();
+        MMAGIC_JERK = jerkSubscription.get();
+
         if(checkGains()) {
             motor.configPIDF(0, kP, kI, kD, kS, kV, kA);
             motor.getConfig().MotionMagic.MotionMagicAcceleration = MMAGIC_ACCEL;